@@ -0,0 +1,81 @@
+package nova.core.component;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures component lookups on a provider with a handful of components, by
+ * exact class, by interface and for a missing component.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ComponentProviderBenchmark {
+
+	private final ComponentProvider provider = new ComponentProvider() {
+	};
+
+	@Setup
+	public void setUp() {
+		provider.add(new First());
+		provider.add(new Second());
+		provider.add(new Third());
+		provider.add(new Fourth());
+		provider.add(new Fifth());
+	}
+
+	@Benchmark
+	public Fourth getExact() {
+		return provider.get(Fourth.class);
+	}
+
+	@Benchmark
+	public Marker getInterface() {
+		return provider.get(Marker.class);
+	}
+
+	@Benchmark
+	public Optional<Missing> getMissing() {
+		return provider.getOp(Missing.class);
+	}
+
+	@Benchmark
+	public boolean has() {
+		return provider.has(Third.class);
+	}
+
+	public interface Marker {
+	}
+
+	public static class First extends Component {
+	}
+
+	public static class Second extends Component {
+	}
+
+	public static class Third extends Component {
+	}
+
+	public static class Fourth extends Component {
+	}
+
+	public static class Fifth extends Component implements Marker {
+	}
+
+	public static class Missing extends Component {
+	}
+}
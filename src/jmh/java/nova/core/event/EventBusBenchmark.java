@@ -0,0 +1,63 @@
+package nova.core.event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link EventBus#publish(Object)} with listeners that receive every
+ * event, and with listeners of which only half receive the published event type.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EventBusBenchmark {
+
+	@Param({ "1", "10", "100" })
+	public int listeners;
+
+	@Param({ "false", "true" })
+	public boolean typed;
+
+	private final EventBus<Event> bus = new EventBus<>();
+	private final Event event = new PublishedEvent();
+	private int received;
+
+	@Setup
+	public void setUp() {
+		for (int i = 0; i < listeners; i++) {
+			if (!typed) {
+				bus.on().bind(event -> received++);
+			} else if (i % 2 == 0) {
+				bus.on(PublishedEvent.class).bind(event -> received++);
+			} else {
+				bus.on(OtherEvent.class).bind(event -> received++);
+			}
+		}
+	}
+
+	@Benchmark
+	public int publish() {
+		bus.publish(event);
+		return received;
+	}
+
+	public static class PublishedEvent extends Event {
+	}
+
+	public static class OtherEvent extends Event {
+	}
+}
@@ -0,0 +1,54 @@
+package nova.core.network;
+
+import nova.core.retention.Data;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Packet#writeData(Data)} into a pooled packet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PacketBenchmark {
+
+	private final PacketPool pool = new PacketPool();
+	private final Data data = new Data();
+
+	@Setup
+	public void setUp() {
+		data.putInt("energy", 1000);
+		data.putLong("ticks", 123456789L);
+		data.putDouble("temperature", 295.5);
+		data.putFloat("speed", 0.25f);
+		data.putBoolean("active", true);
+		data.put("owner", "owner");
+		data.putVector3D("position", new Vector3D(1, 2, 3));
+		Data inner = new Data();
+		inner.putInt("value", 42);
+		data.put("inner", inner);
+	}
+
+	@Benchmark
+	public int writeData() {
+		ByteBufferPacket packet = pool.acquire();
+		packet.writeData(data);
+		int written = packet.writerIndex();
+		packet.release();
+		return written;
+	}
+}
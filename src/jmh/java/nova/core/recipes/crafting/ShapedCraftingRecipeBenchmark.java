@@ -0,0 +1,127 @@
+package nova.core.recipes.crafting;
+
+import nova.core.entity.component.Player;
+import nova.core.item.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ShapedCraftingRecipe#matches(CraftingGrid)} of a 3x3 recipe
+ * against a grid it matches and a grid that differs in the last slot.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ShapedCraftingRecipeBenchmark {
+
+	private final ShapedCraftingRecipe recipe = new ShapedCraftingRecipe(new BenchmarkItem("output"), "AAA-ABA-AAA",
+		ItemIngredient.forItem("a"), ItemIngredient.forItem("b"));
+	private final Grid matching = new Grid();
+	private final Grid different = new Grid();
+
+	@Setup
+	public void setUp() {
+		for (int i = 0; i < 9; i++) {
+			Optional<Item> item = Optional.of(new BenchmarkItem(i == 4 ? "b" : "a"));
+			matching.setStack(i, item);
+			different.setStack(i, i == 8 ? Optional.of(new BenchmarkItem("c")) : item);
+		}
+	}
+
+	@Benchmark
+	public boolean matches() {
+		return recipe.matches(matching);
+	}
+
+	@Benchmark
+	public boolean mismatches() {
+		return recipe.matches(different);
+	}
+
+	public static class BenchmarkItem extends Item {
+		private final String id;
+
+		public BenchmarkItem(String id) {
+			this.id = id;
+		}
+
+		@Override
+		public String getID() {
+			return id;
+		}
+	}
+
+	public static class Grid implements CraftingGrid {
+		@SuppressWarnings("unchecked")
+		private final Optional<Item>[] stacks = new Optional[9];
+
+		@Override
+		public Optional<Player> getPlayer() {
+			return Optional.empty();
+		}
+
+		@Override
+		public int size() {
+			return stacks.length;
+		}
+
+		@Override
+		public Optional<Item> getStack(int slot) {
+			return stacks[slot];
+		}
+
+		@Override
+		public boolean setStack(int slot, Optional<Item> item) {
+			stacks[slot] = item;
+			return true;
+		}
+
+		@Override
+		public int getWidth() {
+			return 3;
+		}
+
+		@Override
+		public int getHeight() {
+			return 3;
+		}
+
+		@Override
+		public Optional<Item> getStack(int x, int y) {
+			return getStack(y * 3 + x);
+		}
+
+		@Override
+		public boolean setStack(int x, int y, Optional<Item> item) {
+			return setStack(y * 3 + x, item);
+		}
+
+		@Override
+		public void giveBack(Item item) {
+		}
+
+		@Override
+		public String getTopology() {
+			return topologySquare;
+		}
+
+		@Override
+		public String getType() {
+			return typeCrafting;
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package nova.core.render.model;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Model#flatten()} of a tree of transformed cube models,
+ * with four children per model.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ModelBenchmark {
+
+	@Param({ "1", "2", "4" })
+	public int depth;
+
+	private Model model;
+
+	@Setup
+	public void setUp() {
+		model = create("root", depth);
+	}
+
+	private static Model create(String name, int depth) {
+		Model model = new Model(name);
+		model.matrix.translate(0.5, 0.25, 0.125);
+		model.matrix.rotate(Vector3D.PLUS_J, Math.PI / 4);
+		model.matrix.scale(0.5, 0.5, 0.5);
+
+		for (int side = 0; side < 6; side++) {
+			Face face = model.createFace();
+			face.drawVertex(new Vertex(0, 0, side, 0, 0));
+			face.drawVertex(new Vertex(1, 0, side, 1, 0));
+			face.drawVertex(new Vertex(1, 1, side, 1, 1));
+			face.drawVertex(new Vertex(0, 1, side, 0, 1));
+			model.drawFace(face);
+		}
+
+		if (depth > 0) {
+			for (int i = 0; i < 4; i++) {
+				model.addChild(create(name + "." + i, depth - 1));
+			}
+		}
+		return model;
+	}
+
+	@Benchmark
+	public Set<Model> flatten() {
+		return model.flatten();
+	}
+}
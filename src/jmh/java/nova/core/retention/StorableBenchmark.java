@@ -0,0 +1,84 @@
+package nova.core.retention;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the default {@link Storable#save(Data)} and {@link Storable#load(Data)}
+ * of an object with primitive, string, vector and nested storable fields.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StorableBenchmark {
+
+	private final Stored stored = new Stored();
+	private final Stored loaded = new Stored();
+	private Data data;
+
+	@Setup
+	public void setUp() {
+		stored.energy = 1000;
+		stored.ticks = 123456789L;
+		stored.temperature = 295.5;
+		stored.speed = 0.25f;
+		stored.active = true;
+		stored.owner = "owner";
+		stored.position = new Vector3D(1, 2, 3);
+		stored.inner.value = 42;
+
+		data = new Data();
+		stored.save(data);
+	}
+
+	@Benchmark
+	public Data save() {
+		Data data = new Data();
+		stored.save(data);
+		return data;
+	}
+
+	@Benchmark
+	public Stored load() {
+		loaded.load(data);
+		return loaded;
+	}
+
+	public static class Stored implements Storable {
+		@Store
+		public int energy;
+		@Store
+		public long ticks;
+		@Store
+		public double temperature;
+		@Store
+		public float speed;
+		@Store
+		public boolean active;
+		@Store
+		public String owner = "";
+		@Store
+		public Vector3D position = Vector3D.ZERO;
+		@Store
+		public Inner inner = new Inner();
+	}
+
+	public static class Inner implements Storable {
+		@Store
+		public int value;
+	}
+}
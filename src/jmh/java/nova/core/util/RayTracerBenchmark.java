@@ -0,0 +1,93 @@
+package nova.core.util;
+
+import nova.core.block.BlockFactory;
+import nova.core.component.misc.Collider;
+import nova.core.component.transform.BlockTransform;
+import nova.testutils.FakeBlock;
+import nova.core.world.ChunkedWorld;
+import nova.core.world.World;
+import nova.testutils.FakeWorld;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link RayTracer#rayTraceBlocks(World)} against a wall of blocks at
+ * the end of the ray, and along a ray that hits nothing, in a {@link FakeWorld}
+ * and in a {@link ChunkedWorld}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RayTracerBenchmark {
+
+	private static final BlockFactory SOLID = new BlockFactory(args -> solid());
+
+	@Param({ "8", "64", "256" })
+	public int distance;
+
+	@Param({ "false", "true" })
+	public boolean chunked;
+
+	private World world;
+	private RayTracer hitting;
+	private RayTracer missing;
+
+	@Setup
+	public void setUp() {
+		world = chunked ? new ChunkedWorld("benchmark", new BlockFactory(args -> new FakeBlock("air"))) : new FakeWorld();
+		for (int y = -8; y <= 8; y++) {
+			for (int z = -8; z <= 8; z++) {
+				put(new Vector3D(distance, y, z));
+			}
+		}
+
+		Vector3D origin = new Vector3D(0.5, 0.5, 0.5);
+		hitting = new RayTracer(new Ray(origin, new Vector3D(1, 0.02, 0.01).normalize())).setDistance(distance + 2);
+		missing = new RayTracer(new Ray(origin, new Vector3D(-1, 0.02, 0.01).normalize())).setDistance(distance + 2);
+	}
+
+	private void put(Vector3D position) {
+		if (chunked) {
+			world.setBlock(position, SOLID);
+			return;
+		}
+
+		FakeBlock block = solid();
+		BlockTransform transform = block.add(new BlockTransform());
+		transform.setWorld(world);
+		transform.setPosition(position);
+		((FakeWorld) world).blockMap.put(position, block);
+	}
+
+	private static FakeBlock solid() {
+		FakeBlock block = new FakeBlock("solid");
+		block.add(new Collider());
+		return block;
+	}
+
+	@Benchmark
+	public Optional<RayTracer.RayTraceBlockResult> firstHit() {
+		return hitting.rayTraceBlocks(world).findFirst();
+	}
+
+	@Benchmark
+	public long miss() {
+		return missing.rayTraceBlocks(world).count();
+	}
+}
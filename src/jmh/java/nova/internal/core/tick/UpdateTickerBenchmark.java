@@ -0,0 +1,81 @@
+package nova.internal.core.tick;
+
+import nova.core.component.Updater;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a tick of {@link UpdateTicker#update()} with cheap updaters spread
+ * over a number of groups.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UpdateTickerBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	public int updaters;
+
+	@Param({ "1", "64" })
+	public int groups;
+
+	private final UpdateTicker ticker = new UpdateTicker();
+	//Keeps the updaters reachable, the ticker only holds them weakly
+	private final List<CountingUpdater> all = new ArrayList<>();
+
+	@Setup
+	public void setUp() {
+		for (int i = 0; i < updaters; i++) {
+			CountingUpdater updater = new CountingUpdater(i % groups);
+			all.add(updater);
+			ticker.add(updater);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		all.forEach(ticker::remove);
+		all.clear();
+	}
+
+	@Benchmark
+	public void update() {
+		ticker.update();
+	}
+
+	public static class CountingUpdater implements Updater {
+		private final Integer group;
+		public long ticks;
+
+		public CountingUpdater(int group) {
+			this.group = group;
+		}
+
+		@Override
+		public Object updateGroup() {
+			return group;
+		}
+
+		@Override
+		public void update(double deltaTime) {
+			ticks++;
+		}
+	}
+}
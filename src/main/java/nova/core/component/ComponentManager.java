@@ -33,6 +33,7 @@ public class ComponentManager extends Manager<Component, ComponentManager.Compon
 	@Override
 	public ComponentFactory register(ComponentFactory factory) {
 		classToComponent.put(factory.getDummy().getClass(), factory.getID());
+		ComponentTypes.getHierarchy(factory.getDummy().getClass());
 		return super.register(factory);
 	}
 
@@ -3,9 +3,11 @@ package nova.core.component;
 import nova.core.component.exception.ComponentException;
 import nova.core.event.EventBus;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,7 +22,14 @@ public abstract class ComponentProvider {
 	public EventBus<ComponentAdded> onComponentAdded = new EventBus<>();
 	public EventBus<ComponentRemoved> onComponentRemoved = new EventBus<>();
 
-	private Map<Class<? extends Component>, Component> componentMap = new HashMap<>();
+	private final List<Component> componentList = new ArrayList<>();
+	private final Collection<Component> componentView = Collections.unmodifiableList(componentList);
+
+	/**
+	 * The lookup table of the component types. It is replaced rather than
+	 * modified, so concurrent lookups see either the old or the new table.
+	 */
+	private volatile TypeTable types = TypeTable.EMPTY;
 
 	/**
 	 * Adds a component to the provider.
@@ -34,7 +43,8 @@ public abstract class ComponentProvider {
 			throw new ComponentException("Attempt to add two components of the type %s to " + this, component);
 		}
 
-		componentMap.put(component.getClass(), component);
+		componentList.add(component);
+		types = types.with(component);
 		onComponentAdded.publish(new ComponentAdded(component));
 		return component;
 	}
@@ -51,7 +61,8 @@ public abstract class ComponentProvider {
 			return get((Class<C>) component.getClass());
 		}
 
-		componentMap.put(component.getClass(), component);
+		componentList.add(component);
+		types = types.with(component);
 		onComponentAdded.publish(new ComponentAdded(component));
 		return component;
 	}
@@ -63,7 +74,9 @@ public abstract class ComponentProvider {
 	 * @return the component removed.
 	 */
 	public final <C extends Component> C remove(C component) {
-		componentMap.remove(component.getClass());
+		if (componentList.remove(component)) {
+			reindex();
+		}
 		onComponentRemoved.publish(new ComponentRemoved(component));
 		return component;
 	}
@@ -73,8 +86,7 @@ public abstract class ComponentProvider {
 	 * @return true if the component exists on the provider.
 	 */
 	public final boolean has(Class<?> componentType) {
-		return componentMap.keySet().stream()
-			.anyMatch(componentType::isAssignableFrom);
+		return find(componentType) != null;
 	}
 
 	/**
@@ -86,11 +98,13 @@ public abstract class ComponentProvider {
 	 */
 	@SuppressWarnings("unchecked")
 	public final <C extends Component> C remove(Class<C> componentType) {
-		if (!has(componentType)) {
+		C component = (C) find(componentType);
+		if (component == null) {
 			throw new ComponentException("Attempt to remove component that does not exist: %s", componentType);
 		}
 
-		C component = (C) componentMap.remove(componentType);
+		componentList.remove(component);
+		reindex();
 		onComponentRemoved.publish(new ComponentRemoved(component));
 		return component;
 	}
@@ -104,17 +118,7 @@ public abstract class ComponentProvider {
 	 */
 	@SuppressWarnings("unchecked")
 	public final <C> Optional<C> getOp(Class<C> componentType) {
-		if (componentType.isAssignableFrom(Component.class)) {
-			Component component = componentMap.get(componentType.asSubclass(Component.class));
-			if (component != null) {
-				return Optional.of((C) component);
-			}
-		}
-		return componentMap.values().stream()
-			.filter(c -> componentType.isAssignableFrom(c.getClass()))
-			.map(componentType::cast)
-			.findFirst();
-
+		return Optional.ofNullable((C) find(componentType));
 	}
 
 	/**
@@ -124,8 +128,43 @@ public abstract class ComponentProvider {
 	 * @return the component.
 	 * @throws ComponentException if the component doesn't exist.
 	 */
+	@SuppressWarnings("unchecked")
 	public final <C> C get(Class<C> componentType) {
-		return getOp(componentType).orElseThrow(() -> new ComponentException("Attempt to get component that does not exist: %s", componentType));
+		Component component = find(componentType);
+		if (component == null) {
+			throw new ComponentException("Attempt to get component that does not exist: %s", componentType);
+		}
+		return (C) component;
+	}
+
+	/**
+	 * Finds the component of a type, which is either the component of exactly
+	 * that class or the first added component that is an instance of the type.
+	 *
+	 * @return The component, or null if there is none
+	 */
+	private Component find(Class<?> componentType) {
+		return types.find(ComponentTypes.getID(componentType));
+	}
+
+	/**
+	 * Rebuilds the type table after a component was removed.
+	 */
+	private void reindex() {
+		TypeTable table = TypeTable.EMPTY;
+		for (Component component : componentList) {
+			table = table.with(component);
+		}
+		types = table;
+	}
+
+	/**
+	 * Gets the components that are {@link Updater Updaters}. The array must not be modified.
+	 *
+	 * @return The updater components
+	 */
+	final Updater[] updaters() {
+		return types.updaters;
 	}
 
 	/**
@@ -134,7 +173,109 @@ public abstract class ComponentProvider {
 	 * @return A set of components.
 	 */
 	public final Collection<Component> components() {
-		return componentMap.values();
+		return componentView;
+	}
+
+	/**
+	 * An immutable lookup table from the {@link ComponentTypes type IDs} of the
+	 * components to the first added component of each type.
+	 */
+	private static final class TypeTable {
+		private static final TypeTable EMPTY = new TypeTable(new long[0], new int[] { -1 }, new Component[1], 0, new Updater[0]);
+
+		/**
+		 * A bit set of the type IDs of all components.
+		 */
+		private final long[] mask;
+		/**
+		 * An open addressing table from type ID to component. Empty slots have the key -1.
+		 */
+		private final int[] keys;
+		private final Component[] values;
+		private final int count;
+		/**
+		 * The components that are {@link Updater Updaters}, in the order they were added.
+		 */
+		private final Updater[] updaters;
+
+		private TypeTable(long[] mask, int[] keys, Component[] values, int count, Updater[] updaters) {
+			this.mask = mask;
+			this.keys = keys;
+			this.values = values;
+			this.count = count;
+			this.updaters = updaters;
+		}
+
+		private Component find(int id) {
+			if ((id >>> 6) >= mask.length || (mask[id >>> 6] & (1L << id)) == 0) {
+				return null;
+			}
+
+			int i = slot(id, keys.length);
+			while (keys[i] != id) {
+				if (keys[i] < 0) {
+					return null;
+				}
+				i = (i + 1) & (keys.length - 1);
+			}
+			return values[i];
+		}
+
+		/**
+		 * @return A copy of this table with the types of a component that no
+		 * other component provides yet
+		 */
+		private TypeTable with(Component component) {
+			int[] hierarchy = ComponentTypes.getHierarchy(component.getClass());
+
+			int words = mask.length;
+			for (int id : hierarchy) {
+				words = Math.max(words, (id >>> 6) + 1);
+			}
+			long[] newMask = Arrays.copyOf(mask, words);
+
+			int length = keys.length;
+			while ((count + hierarchy.length) * 2 > length) {
+				length <<= 1;
+			}
+			int[] newKeys = new int[length];
+			Component[] newValues = new Component[length];
+			Arrays.fill(newKeys, -1);
+			for (int i = 0; i < keys.length; i++) {
+				if (keys[i] >= 0) {
+					put(newKeys, newValues, keys[i], values[i]);
+				}
+			}
+
+			int newCount = count;
+			for (int id : hierarchy) {
+				if ((newMask[id >>> 6] & (1L << id)) == 0) {
+					newMask[id >>> 6] |= 1L << id;
+					put(newKeys, newValues, id, component);
+					newCount++;
+				}
+			}
+
+			Updater[] newUpdaters = updaters;
+			if (component instanceof Updater) {
+				newUpdaters = Arrays.copyOf(updaters, updaters.length + 1);
+				newUpdaters[updaters.length] = (Updater) component;
+			}
+			return new TypeTable(newMask, newKeys, newValues, newCount, newUpdaters);
+		}
+
+		private static int slot(int id, int length) {
+			return (id * 0x9E3779B9 >>> 16) & (length - 1);
+		}
+
+		private static void put(int[] keys, Component[] values, int id, Component component) {
+			int i = slot(id, keys.length);
+			while (keys[i] >= 0) {
+				i = (i + 1) & (keys.length - 1);
+			}
+			keys[i] = id;
+			values[i] = component;
+		}
 	}
 
 	public static class ComponentAdded {
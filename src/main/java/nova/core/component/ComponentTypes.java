@@ -0,0 +1,75 @@
+package nova.core.component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns dense integer IDs to component types. Every class and interface a
+ * component can be looked up by gets its own ID, so a
+ * {@link ComponentProvider} can index its components by type ID instead of
+ * by class.
+ *
+ * IDs are assigned when a component is registered in the
+ * {@link ComponentManager}, or on first use for types that are not registered.
+ * They are only valid for the running game and should not be saved or synced.
+ */
+public final class ComponentTypes {
+
+	private static final AtomicInteger nextID = new AtomicInteger();
+
+	private static final ClassValue<Integer> IDS = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			return nextID.getAndIncrement();
+		}
+	};
+
+	private static final ClassValue<int[]> HIERARCHIES = new ClassValue<int[]>() {
+		@Override
+		protected int[] computeValue(Class<?> type) {
+			Set<Class<?>> types = new LinkedHashSet<>();
+			collect(type, types);
+			return types.stream().mapToInt(ComponentTypes::getID).toArray();
+		}
+	};
+
+	private ComponentTypes() {
+	}
+
+	private static void collect(Class<?> type, Set<Class<?>> types) {
+		if (type != null && types.add(type)) {
+			collect(type.getSuperclass(), types);
+			for (Class<?> theInterface : type.getInterfaces()) {
+				collect(theInterface, types);
+			}
+		}
+	}
+
+	/**
+	 * @param type A class or interface
+	 * @return The ID of the type
+	 */
+	public static int getID(Class<?> type) {
+		return IDS.get(type);
+	}
+
+	/**
+	 * Gets the IDs of all types a component class can be looked up by: the
+	 * class itself first, followed by its super classes and all of their
+	 * interfaces.
+	 *
+	 * @param type The component class
+	 * @return The type IDs, which must not be modified
+	 */
+	public static int[] getHierarchy(Class<?> type) {
+		return HIERARCHIES.get(type);
+	}
+
+	/**
+	 * @return The number of IDs assigned so far
+	 */
+	public static int size() {
+		return nextID.get();
+	}
+}
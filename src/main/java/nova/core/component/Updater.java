@@ -1,11 +1,54 @@
 package nova.core.component;
 
+import nova.core.component.transform.WorldTransform;
+import nova.core.world.Region;
+import nova.core.world.World;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
 /**
  * Implement this on Blocks and Entities which can tick.
  */
 public interface Updater {
 	/**
-	 * Ticks the object.
+	 * Gets the group of this updater. Updaters of the same group are updated
+	 * one after another on the same thread, while different groups may be
+	 * updated in parallel. Updaters that access the same state should share a
+	 * group.
+	 *
+	 * By default blocks and entities with a {@link WorldTransform} are grouped
+	 * by the {@link Region} they are in, so they may only change state in
+	 * their own region while they are updated. Work that affects other
+	 * regions has to be deferred with
+	 * {@link nova.internal.core.tick.UpdateTicker#postQueue(Runnable)}.
+	 *
+	 * The group is read when the updater is added to a ticker or woken, and
+	 * whenever the ticker rebuilds its groups. The ticker also reads the group
+	 * again when the {@link WorldTransform} of an updater moves into another
+	 * region or is added or removed, so moving entities are updated with their
+	 * new region from the next tick on. Updaters with a custom group that
+	 * changes for other reasons are only regrouped periodically, and should be
+	 * removed and added again to be regrouped right away.
+	 *
+	 * @return The group key, or null for the default group
+	 */
+	default Object updateGroup() {
+		if (this instanceof ComponentProvider) {
+			WorldTransform<?> transform = ((ComponentProvider) this).getOp(WorldTransform.class).orElse(null);
+			if (transform != null) {
+				World world = transform.world();
+				Object position = transform.position();
+				if (world != null && position instanceof Vector3D) {
+					return Region.of(world, (Vector3D) position);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Ticks the object. Updaters that have nothing to do can sleep with
+	 * {@link nova.internal.core.tick.UpdateTicker#sleep(Updater, int)} to
+	 * skip ticks.
 	 * @param deltaTime The time since the last update, in seconds.
 	 */
 	default void update(double deltaTime) {
@@ -13,10 +56,9 @@ public interface Updater {
 		 * Update components
 		 */
 		if (this instanceof ComponentProvider) {
-			((ComponentProvider) this).components()
-				.stream()
-				.filter(component -> component instanceof Updater)
-				.forEach(component -> ((Updater) component).update(deltaTime));
+			for (Updater updater : ((ComponentProvider) this).updaters()) {
+				updater.update(deltaTime);
+			}
 		}
 	}
 }
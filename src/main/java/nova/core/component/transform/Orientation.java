@@ -281,12 +281,12 @@ public class Orientation extends Component implements Storable, Stateful, Syncab
 
 	@Override
 	public void save(Data data) {
-		data.put("orientation", orientation.ordinal());
+		data.putInt("orientation", orientation.ordinal());
 	}
 
 	@Override
 	public void load(Data data) {
-		orientation = Direction.fromOrdinal(data.get("orientation"));
+		orientation = Direction.fromOrdinal(data.getInt("orientation"));
 	}
 
 	@Override
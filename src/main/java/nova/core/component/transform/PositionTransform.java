@@ -1,6 +1,9 @@
 package nova.core.component.transform;
 
 import nova.core.component.Component;
+import nova.core.event.Event;
+
+import java.util.Objects;
 
 /**
  * A tansform that is associates with a position.
@@ -15,6 +18,24 @@ public class PositionTransform<P> extends Component {
 	}
 
 	public void setPosition(P position) {
+		P previous = this.position;
 		this.position = position;
+		if (!events.isEmpty() && !Objects.equals(previous, position)) {
+			events.publish(new PositionChangeEvent<>(previous, position));
+		}
+	}
+
+	/**
+	 * Called when the position of the transform changed. Setting the same
+	 * position again does not publish an event.
+	 */
+	public static class PositionChangeEvent<P> extends Event {
+		public final P previous;
+		public final P position;
+
+		public PositionChangeEvent(P previous, P position) {
+			this.previous = previous;
+			this.position = position;
+		}
 	}
 }
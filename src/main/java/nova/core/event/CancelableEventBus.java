@@ -1,5 +1,7 @@
 package nova.core.event;
 
+import nova.core.util.SectionProfiler;
+
 /**
  * Variant of {@link EventBus} which stops publishing events after they are
  * canceled.
@@ -10,15 +12,15 @@ package nova.core.event;
 public class CancelableEventBus<T extends Cancelable> extends EventBus<T> {
 	@Override
 	public void publish(T event) {
-		EventListenerNode current;
-
-		current = first;
-
-		while (current != null && !event.isCanceled()) {
-			current.listener.onEvent(event);
-
-			synchronized (this) {
-				current = current.next;
+		EventListenerNode[] current = listenersFor(event.getClass());
+		boolean profiled = startSection(event);
+		try {
+			for (int i = 0; i < current.length && !event.isCanceled(); i++) {
+				current[i].listener.onEvent(event);
+			}
+		} finally {
+			if (profiled) {
+				SectionProfiler.end();
 			}
 		}
 	}
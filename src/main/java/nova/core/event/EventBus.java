@@ -1,11 +1,19 @@
 package nova.core.event;
 
+import nova.core.util.SectionProfiler;
+
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * A general purpose event bus. This class is thread-safe and listeners can be
  * added or removed concurrently, no external locking is ever needed. Also, it's
- * very lightweight.
+ * very lightweight: listeners are kept in an immutable array that is only
+ * replaced on bind or close, so publishing never locks or allocates. Listeners
+ * that only accept a specific event class are looked up through a per-class
+ * index instead of being tested one by one.
  * @param <T> event type
  * @author Stan Hebben
  */
@@ -16,12 +24,30 @@ public class EventBus<T> {
 
 	// TODO: actually test concurrency
 
-	// implements a linked list of nodes
-	protected volatile EventListenerNode first = null;
-	protected EventListenerNode last = null;
+	private static final ClassValue<String> SECTION_NAMES = new ClassValue<String>() {
+		@Override
+		protected String computeValue(Class<?> eventClass) {
+			return "publish " + eventClass.getName();
+		}
+	};
+
+	// immutable, priority sorted snapshot of all nodes. Only replaced
+	// (copy-on-write) while holding the lock on this bus, so publishing can
+	// read it without any locking.
+	protected volatile EventListenerNode[] listeners = newNodeArray(0);
+
+	// concrete event class -> the nodes accepting it, in priority order. Reset
+	// to null after every change of the listeners (always written after them),
+	// so buses that are never published to never create it. Created and
+	// filled lazily on publish.
+	private volatile Map<Class<?>, EventListenerNode[]> index;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<EventBus, Map> INDEX = AtomicReferenceFieldUpdater.newUpdater(EventBus.class, Map.class, "index");
 
 	public synchronized void clear() {
-		first = last = null;
+		listeners = newNodeArray(0);
+		index = null;
 	}
 
 	/**
@@ -59,15 +85,11 @@ public class EventBus<T> {
 	 * @return true if the listener was removed, false it it wasn't there
 	 */
 	public synchronized boolean remove(EventListener<T> listener) {
-		EventListenerNode current = first;
-
-		while (current != null) {
-			if (current.listener.equals(listener)) {
-				current.close();
+		for (EventListenerNode node : listeners) {
+			if (node.listener.equals(listener)) {
+				node.close();
 				return true;
 			}
-
-			current = current.next;
 		}
 
 		return false;
@@ -78,7 +100,7 @@ public class EventBus<T> {
 	 * @return true if empty
 	 */
 	public boolean isEmpty() {
-		return first == null;
+		return listeners.length == 0;
 	}
 
 	/**
@@ -86,19 +108,110 @@ public class EventBus<T> {
 	 * @param event event to be published
 	 */
 	public void publish(T event) {
-		EventListenerNode current;
+		EventListenerNode[] current = listenersFor(event.getClass());
+		boolean profiled = startSection(event);
+		try {
+			for (int i = 0; i < current.length; i++) {
+				current[i].listener.onEvent(event);
+			}
+		} finally {
+			if (profiled) {
+				SectionProfiler.end();
+			}
+		}
+	}
 
-		current = first;
+	/**
+	 * Opens the {@link SectionProfiler profiler} section of publishing an
+	 * event, if the profiler is enabled.
+	 * @param event The event
+	 * @return true if a section was opened
+	 */
+	protected static boolean startSection(Object event) {
+		if (SectionProfiler.isEnabled()) {
+			SectionProfiler.start(SECTION_NAMES.get(event.getClass()));
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets all nodes listening for an event class, in the order they have to
+	 * be called. The result is cached until a listener is bound or closed.
+	 * @param eventClass The concrete class of the event
+	 * @return The nodes accepting the event class
+	 */
+	protected EventListenerNode[] listenersFor(Class<?> eventClass) {
+		// Read (or install) the index before the listeners, so a fresh index never gets filled from stale listeners.
+		Map<Class<?>, EventListenerNode[]> current = index;
+		while (current == null) {
+			Map<Class<?>, EventListenerNode[]> created = new ConcurrentHashMap<>();
+			current = INDEX.compareAndSet(this, null, created) ? created : index;
+		}
+		EventListenerNode[] chain = current.get(eventClass);
+		if (chain == null) {
+			EventListenerNode[] all = listeners;
+			int count = 0;
+			for (EventListenerNode node : all) {
+				if (node.eventClass.isAssignableFrom(eventClass)) {
+					count++;
+				}
+			}
+
+			chain = newNodeArray(count);
+			count = 0;
+			for (EventListenerNode node : all) {
+				if (node.eventClass.isAssignableFrom(eventClass)) {
+					chain[count++] = node;
+				}
+			}
+			current.put(eventClass, chain);
+		}
+		return chain;
+	}
+
+	/**
+	 * Inserts a node after all nodes with a higher or equal priority.
+	 * @param node The node to insert
+	 */
+	protected synchronized void insert(EventListenerNode node) {
+		EventListenerNode[] current = listeners;
+		int index = 0;
+		while (index < current.length && current[index].priority >= node.priority) {
+			index++;
+		}
 
-		while (current != null) {
-			current.listener.onEvent(event);
+		EventListenerNode[] updated = newNodeArray(current.length + 1);
+		System.arraycopy(current, 0, updated, 0, index);
+		updated[index] = node;
+		System.arraycopy(current, index, updated, index + 1, current.length - index);
+		listeners = updated;
+		this.index = null;
+	}
 
-			synchronized (this) {
-				current = current.next;
+	/**
+	 * Removes a node. Does nothing if the node was already removed.
+	 * @param node The node to remove
+	 */
+	protected synchronized void delete(EventListenerNode node) {
+		EventListenerNode[] current = listeners;
+		for (int index = 0; index < current.length; index++) {
+			if (current[index] == node) {
+				EventListenerNode[] updated = newNodeArray(current.length - 1);
+				System.arraycopy(current, 0, updated, 0, index);
+				System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+				listeners = updated;
+				this.index = null;
+				return;
 			}
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	protected EventListenerNode[] newNodeArray(int length) {
+		return (EventListenerNode[]) new EventBus<?>.EventListenerNode[length];
+	}
+
 	/**
 	 * Retrieves the EventBinder object to bind an EventListener to ths EventBus that only accepts a specific subclass of &lt;T&gt;
 	 * @param <E> The event type
@@ -125,38 +238,10 @@ public class EventBus<T> {
 			return this;
 		}
 
+		@SuppressWarnings("unchecked")
 		public EventListenerHandle<T> bind(EventListener<E> list) {
-			EventListener<T> listener = clazz.isPresent() ? new SingleEventListener<>(list, clazz.get()) : (EventListener) list;
-
-			EventListenerNode node = new EventListenerNode(listener, priority);
-
-			synchronized (this) {
-				if (first == null) {
-					first = last = node;
-				} else {
-					// prioritized list: where to insert?
-					EventListenerNode previousNode = last;
-					while (previousNode != null && priority > previousNode.priority) {
-						previousNode = previousNode.prev;
-					}
-
-					if (previousNode == null) {
-						node.next = first;
-						first.prev = previousNode;
-						first = node;
-					} else {
-						if (previousNode.next == null) {
-							last = node;
-						} else {
-							previousNode.next.prev = node;
-						}
-
-						previousNode.next = node;
-						node.prev = previousNode;
-					}
-				}
-			}
-
+			EventListenerNode node = new EventListenerNode((EventListener) list, clazz.isPresent() ? clazz.get() : Object.class, priority);
+			insert(node);
 			return node;
 		}
 	}
@@ -167,12 +252,18 @@ public class EventBus<T> {
 
 	protected class EventListenerNode implements EventListenerHandle<T> {
 		protected final EventListener<T> listener;
+		protected final Class<?> eventClass;
 		protected final int priority;
-		protected EventListenerNode next = null;
-		protected EventListenerNode prev = null;
 
-		public EventListenerNode(EventListener<T> handler, int priority) {
+		/**
+		 * @param handler The listener
+		 * @param eventClass The listener only gets called for events that are
+		 * an instance of this class.
+		 * @param priority The priority
+		 */
+		public EventListenerNode(EventListener<T> handler, Class<?> eventClass, int priority) {
 			this.listener = handler;
+			this.eventClass = eventClass;
 			this.priority = priority;
 		}
 
@@ -183,52 +274,7 @@ public class EventBus<T> {
 
 		@Override
 		public void close() {
-			synchronized (EventBus.this) {
-				if (prev == null) {
-					first = next;
-				} else {
-					prev.next = next;
-				}
-
-				if (next == null) {
-					last = prev;
-				} else {
-					next.prev = prev;
-				}
-			}
-		}
-	}
-
-	/**
-	 * A wrapper for an event listener that only accepts a specific type of
-	 * event.
-	 * @param <E> event type
-	 * @param <T> super type
-	 * @author Vic Nightfall
-	 */
-	protected static class SingleEventListener<E extends T, T> implements EventListener<T> {
-		private final Class<E> eventClass;
-		private final EventListener<E> wrappedListener;
-
-		/**
-		 * Constructs a new single typed Event listener.
-		 * @param wrappedListener The listener which gets called when the event
-		 * was accepted.
-		 * @param eventClass The event to listen for, Any posted event that is
-		 * an instance of said class will get passed through to the
-		 * wrapped listener instance.
-		 */
-		public SingleEventListener(EventListener<E> wrappedListener, Class<E> eventClass) {
-			this.eventClass = eventClass;
-			this.wrappedListener = wrappedListener;
-		}
-
-		@SuppressWarnings("unchecked")
-		@Override
-		public void onEvent(T event) {
-			if (eventClass.isInstance(event)) {
-				wrappedListener.onEvent((E) event);
-			}
+			delete(this);
 		}
 	}
 }
@@ -4,8 +4,6 @@ import nova.core.network.NetworkTarget;
 import nova.core.network.NetworkTarget.Side;
 import nova.core.network.Syncable;
 
-import java.util.HashMap;
-
 /**
  * {@link EventBus} that can differentiate {@link NetworkTarget NetworkTargets}
  * and allows registration of handlers that only listen on a specific
@@ -18,79 +16,37 @@ import java.util.HashMap;
 public class SidedEventBus<T extends Cancelable> extends CancelableEventBus<T> {
 
 	private NetworkEventProcessor eventProcessor;
-	private boolean checkListenedBeforeSend = true;
-	private HashMap<Class<?>, Side> listenedNetworkEvents = new HashMap<>();
 
 	public SidedEventBus(NetworkEventProcessor eventProcessor) {
 		this.eventProcessor = eventProcessor;
 	}
 
-	private void add(Class<?> clazz, Side side) {
-		if (side == Side.NONE)
-			throw new IllegalArgumentException("Can't specify a sided event without a scope!");
-		Side side2 = listenedNetworkEvents.get(clazz);
-		if (side2 != null) {
-			if (side2 != Side.BOTH && side2 != side) {
-				listenedNetworkEvents.put(clazz, Side.BOTH);
+	/**
+	 * Checks if any listener for the given event class listens on the given
+	 * side. Listeners that were added without a side listen on both sides.
+	 */
+	private boolean contains(Class<?> clazz, Side side) {
+		for (EventListenerNode node : listenersFor(clazz)) {
+			if (!(node.listener instanceof SidedEventListener)) {
+				return true;
 			}
-		} else {
-			listenedNetworkEvents.put(clazz, side);
-		}
-	}
 
-	private boolean contains(Class<?> clazz, Side side) {
-		Class<?> clazz2 = clazz;
-		while (true) {
-			Side side2 = listenedNetworkEvents.get(clazz2);
+			Side side2 = ((SidedEventListener<?>) node.listener).side;
 			if (side2 == side || side2 == Side.BOTH) {
-				listenedNetworkEvents.put(clazz, side2);
 				return true;
 			}
-			if (clazz2 == Object.class) {
-				break;
-			}
-			clazz2 = clazz2.getSuperclass();
 		}
 		return false;
 	}
 
-	@Override
-	@Deprecated
-	public EventListenerHandle<T> add(EventListener<T> listener) {
-		// Disables the checking mechanism as now there is a listener that
-		// listens for everything on every side. Whoever called this clearly
-		// doesn't care about network load or anything else.
-		checkListenedBeforeSend = false;
-		return super.add(listener);
-	}
-
-	@Override
-	@Deprecated
-	public EventListenerHandle<T> add(EventListener<T> listener, int priority) {
-		checkListenedBeforeSend = false;
-		return super.add(listener, priority);
-	}
-
-	@Override
-	public <E extends T> EventListenerHandle<T> add(EventListener<E> listener, Class<E> clazz) {
-		add(clazz, Side.BOTH);
-		return super.add(listener, clazz);
-	}
-
-	@Override
-	public <E extends T> EventListenerHandle<T> add(EventListener<E> listener, Class<E> clazz, int priority) {
-		add(clazz, Side.BOTH);
-		return super.add(listener, clazz, priority);
-	}
-
 	public <E extends T> EventListenerHandle<T> add(EventListener<E> listener, Class<E> clazz, Side sideToListen) {
-		add(clazz, sideToListen);
-		return super.add(new SidedEventListener<E, T>(listener, clazz, sideToListen), PRIORITY_DEFAULT);
+		return add(listener, clazz, sideToListen, PRIORITY_DEFAULT);
 	}
 
 	public <E extends T> EventListenerHandle<T> add(EventListener<E> listener, Class<E> clazz, Side sideToListen, int priority) {
-		add(clazz, sideToListen);
-		return super.add(new SidedEventListener<E, T>(listener, clazz, sideToListen), priority);
+		if (sideToListen == Side.NONE)
+			throw new IllegalArgumentException("Can't specify a sided event without a scope!");
+		return on(clazz).with(priority).bind(new SidedEventListener<>(listener, sideToListen));
 	}
 
 	@Override
@@ -105,11 +61,7 @@ public class SidedEventBus<T extends Cancelable> extends CancelableEventBus<T> {
 
 			// Check if the event needs to be sent over the network.
 			if (currentSide.targets(sidedEvent.getTarget())) {
-				boolean send = !checkListenedBeforeSend;
-				if (!send) {
-					send = contains(event.getClass(), currentSide.opposite());
-				}
-				if (send) {
+				if (contains(event.getClass(), currentSide.opposite())) {
 					eventProcessor.handleEvent(sidedEvent);
 				}
 			}
@@ -145,24 +97,25 @@ public class SidedEventBus<T extends Cancelable> extends CancelableEventBus<T> {
 		}
 	}
 
-	protected static class SidedEventListener<E extends T, T> extends SingleEventListener<E, T> {
+	protected static class SidedEventListener<E> implements EventListener<E> {
 
 		public final Side side;
+		private final EventListener<E> wrappedListener;
 
-		public SidedEventListener(EventListener<E> wrappedListener, Class<E> eventClass, Side side) {
-			super(wrappedListener, eventClass);
+		public SidedEventListener(EventListener<E> wrappedListener, Side side) {
+			this.wrappedListener = wrappedListener;
 			this.side = side;
 		}
 
 		@Override
-		public void onEvent(T event) {
+		public void onEvent(E event) {
 			if (event instanceof SidedEventBus.SidedEvent) {
 				SidedEventBus.SidedEvent sidedEvent = (SidedEventBus.SidedEvent) event;
 				if (sidedEvent.getTarget().opposite().targets(side)) {
-					super.onEvent(event);
+					wrappedListener.onEvent(event);
 				}
 			} else {
-				super.onEvent(event);
+				wrappedListener.onEvent(event);
 			}
 		}
 	}
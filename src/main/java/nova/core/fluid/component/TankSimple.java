@@ -97,7 +97,7 @@ public class TankSimple implements Tank, Storable, Syncable {
 
 	@Override
 	public void save(Data data) {
-		data.put("capacity", capacity);
+		data.putInt("capacity", capacity);
 
 		if (containedFluid.isPresent()) {
 			data.put("fluid", containedFluid.get());
@@ -106,7 +106,7 @@ public class TankSimple implements Tank, Storable, Syncable {
 
 	@Override
 	public void load(Data data) {
-		setCapacity(data.get("capacity"));
+		setCapacity(data.getInt("capacity"));
 
 		if (data.containsKey("fluid")) {
 			containedFluid = Optional.of(data.getStorable("fluid"));
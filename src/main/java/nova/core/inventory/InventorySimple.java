@@ -9,7 +9,6 @@ import nova.core.retention.Storable;
 
 import java.util.Optional;
 import java.util.function.BiFunction;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -77,13 +76,17 @@ public class InventorySimple extends Component implements Inventory, Storable, S
 
 	@Override
 	public void save(Data data) {
-		data.put("size", size());
-		data.putAll(IntStream.range(0, size()).filter(i -> items[i] != null).boxed().collect(Collectors.toMap(i -> i + "", i -> items[i])));
+		data.putInt("size", size());
+		for (int i = 0; i < size(); i++) {
+			if (items[i] != null) {
+				data.put(Integer.toString(i), items[i]);
+			}
+		}
 	}
 
 	@Override
 	public void load(Data data) {
-		items = new Item[(int) data.get("size")];
+		items = new Item[data.getInt("size")];
 		IntStream.range(0, size()).forEach(i -> items[i] = data.get(i + ""));
 	}
 
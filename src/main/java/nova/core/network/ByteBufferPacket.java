@@ -0,0 +1,333 @@
+package nova.core.network;
+
+import nova.core.entity.component.Player;
+import nova.core.retention.Data;
+import nova.core.retention.DataException;
+import nova.core.retention.DataReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A packet backed by a growable direct {@link ByteBuffer}, taken from a
+ * {@link PacketPool}. Values are written at the writer index, which is the
+ * position of the buffer, and read from a separate reader index, so a packet
+ * can be read right after it was written.
+ *
+ * A packet must be {@link #release() released} once it is no longer used,
+ * which returns it to its pool. A packet may not be used after it was released.
+ *
+ * Strings are written as their UTF-8 length and bytes.
+ */
+public class ByteBufferPacket implements Packet {
+
+	private final PacketPool pool;
+	private ByteBuffer buffer;
+	private int readerIndex;
+	private int id;
+	private Player player;
+	private boolean released;
+
+	ByteBufferPacket(PacketPool pool, int capacity) {
+		this.pool = pool;
+		this.buffer = ByteBuffer.allocateDirect(capacity);
+	}
+
+	/**
+	 * Returns this packet to its pool.
+	 */
+	public void release() {
+		if (released) {
+			throw new NetworkException("Packet was already released.");
+		}
+
+		released = true;
+		player = null;
+		if (buffer.capacity() > pool.maxRetainedCapacity) {
+			buffer = ByteBuffer.allocateDirect(pool.initialCapacity);
+		}
+		pool.release(this);
+	}
+
+	void reset() {
+		released = false;
+		buffer.clear();
+		readerIndex = 0;
+		id = 0;
+	}
+
+	@Override
+	public int getID() {
+		return id;
+	}
+
+	@Override
+	public ByteBufferPacket setID(int id) {
+		this.id = id;
+		return this;
+	}
+
+	@Override
+	public Player player() {
+		return player;
+	}
+
+	public ByteBufferPacket setPlayer(Player player) {
+		this.player = player;
+		return this;
+	}
+
+	/**
+	 * @return The number of written bytes
+	 */
+	public int writerIndex() {
+		return buffer.position();
+	}
+
+	public int readerIndex() {
+		return readerIndex;
+	}
+
+	/**
+	 * @return The number of bytes that are written, but not read yet
+	 */
+	public int readableBytes() {
+		return buffer.position() - readerIndex;
+	}
+
+	/**
+	 * Gets the unread bytes of this packet, for example to send them. The
+	 * returned buffer shares its content with this packet and is only valid
+	 * until the packet is released.
+	 *
+	 * @return A view of the readable bytes
+	 */
+	public ByteBuffer readableBuffer() {
+		return slice(readerIndex, readableBytes());
+	}
+
+	/**
+	 * Appends the remaining bytes of a buffer to this packet, for example
+	 * when receiving a packet.
+	 *
+	 * @param source The buffer to copy
+	 * @return This packet
+	 */
+	public ByteBufferPacket writeBytes(ByteBuffer source) {
+		ensureWritable(source.remaining()).put(source);
+		return this;
+	}
+
+	private ByteBuffer ensureWritable(int length) {
+		if (buffer.remaining() < length) {
+			int capacity = Math.max(1, buffer.capacity());
+			int required = buffer.position() + length;
+			while (capacity < required) {
+				//Doubling past the largest int would overflow
+				capacity = capacity <= Integer.MAX_VALUE >> 1 ? capacity << 1 : required;
+			}
+
+			ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+			buffer.flip();
+			grown.put(buffer);
+			buffer = grown;
+		}
+		return buffer;
+	}
+
+	private int checkReadable(int length) {
+		if (length < 0 || readableBytes() < length) {
+			throw new IndexOutOfBoundsException("Attempt to read " + length + " bytes with only " + readableBytes() + " readable bytes");
+		}
+		int index = readerIndex;
+		readerIndex += length;
+		return index;
+	}
+
+	private ByteBuffer slice(int index, int length) {
+		ByteBuffer duplicate = buffer.duplicate();
+		duplicate.limit(index + length).position(index);
+		return duplicate.slice();
+	}
+
+	@Override
+	public Packet writeBoolean(boolean value) {
+		ensureWritable(1).put((byte) (value ? 1 : 0));
+		return this;
+	}
+
+	@Override
+	public Packet writeByte(int value) {
+		ensureWritable(1).put((byte) value);
+		return this;
+	}
+
+	@Override
+	public Packet writeShort(int value) {
+		ensureWritable(2).putShort((short) value);
+		return this;
+	}
+
+	@Override
+	public Packet writeInt(int value) {
+		ensureWritable(4).putInt(value);
+		return this;
+	}
+
+	@Override
+	public Packet writeLong(long value) {
+		ensureWritable(8).putLong(value);
+		return this;
+	}
+
+	@Override
+	public Packet writeChar(int value) {
+		ensureWritable(2).putChar((char) value);
+		return this;
+	}
+
+	@Override
+	public Packet writeFloat(float value) {
+		ensureWritable(4).putFloat(value);
+		return this;
+	}
+
+	@Override
+	public Packet writeDouble(double value) {
+		ensureWritable(8).putDouble(value);
+		return this;
+	}
+
+	@Override
+	public Packet writeString(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeInt(bytes.length);
+		return writeBytes(bytes);
+	}
+
+	@Override
+	public Packet writeBytes(byte[] array) {
+		ensureWritable(array.length).put(array);
+		return this;
+	}
+
+	@Override
+	public byte[] readBytes(int length) {
+		byte[] bytes = new byte[length];
+		ByteBuffer duplicate = buffer.duplicate();
+		duplicate.position(checkReadable(length));
+		duplicate.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Reads bytes without copying them. The returned buffer shares its
+	 * content with this packet and is only valid until the packet is released.
+	 *
+	 * @param length The number of bytes to read
+	 * @return A view of the read bytes
+	 */
+	public ByteBuffer readSlice(int length) {
+		return slice(checkReadable(length), length);
+	}
+
+	@Override
+	public boolean readBoolean() {
+		return buffer.get(checkReadable(1)) != 0;
+	}
+
+	@Override
+	public byte readByte() {
+		return buffer.get(checkReadable(1));
+	}
+
+	@Override
+	public short readUnsignedByte() {
+		return (short) (readByte() & 0xFF);
+	}
+
+	@Override
+	public short readShort() {
+		return buffer.getShort(checkReadable(2));
+	}
+
+	@Override
+	public int readInt() {
+		return buffer.getInt(checkReadable(4));
+	}
+
+	@Override
+	public long readUnsignedInt() {
+		return readInt() & 0xFFFFFFFFL;
+	}
+
+	@Override
+	public long readLong() {
+		return buffer.getLong(checkReadable(8));
+	}
+
+	@Override
+	public char readChar() {
+		return buffer.getChar(checkReadable(2));
+	}
+
+	@Override
+	public float readFloat() {
+		return buffer.getFloat(checkReadable(4));
+	}
+
+	@Override
+	public double readDouble() {
+		return buffer.getDouble(checkReadable(8));
+	}
+
+	@Override
+	public String readString() {
+		return new String(readBytes(readInt()), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Decodes the {@link Data} straight from the buffer, without copying it.
+	 */
+	@Override
+	public Data readData() {
+		try (DataReader reader = new DataReader(new SliceInputStream(readSlice(readInt())))) {
+			return reader.read();
+		} catch (IOException e) {
+			throw new DataException(e);
+		}
+	}
+
+	private static class SliceInputStream extends InputStream {
+		private final ByteBuffer slice;
+
+		private SliceInputStream(ByteBuffer slice) {
+			this.slice = slice;
+		}
+
+		@Override
+		public int read() {
+			return slice.hasRemaining() ? slice.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (length == 0) {
+				return 0;
+			}
+			if (!slice.hasRemaining()) {
+				return -1;
+			}
+			length = Math.min(length, slice.remaining());
+			slice.get(bytes, offset, length);
+			return length;
+		}
+
+		@Override
+		public int available() {
+			return slice.remaining();
+		}
+	}
+}
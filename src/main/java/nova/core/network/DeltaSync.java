@@ -0,0 +1,287 @@
+package nova.core.network;
+
+import com.google.common.collect.MapMaker;
+import nova.core.util.FieldAccessor;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes and reads the {@link Sync} fields of {@link Syncable Syncables},
+ * optionally only sending the fields that changed since the last packet.
+ *
+ * Every sync starts with a mode byte and a sequence number. A full sync is
+ * followed by whatever {@link Syncable#write(Packet)} writes. A delta sync is
+ * followed by a bit mask of the changed fields and the values of these fields,
+ * which the receiving side applies onto its existing state.
+ *
+ * The sending side keeps the last sent values and a sequence number per sender
+ * and packet ID. A full sync is sent on the first sync, after
+ * {@link #invalidate(Object)} and after every {@link #getFullSyncInterval()}
+ * delta syncs. A full sync is also sent when every field changed, since the
+ * delta would only add its mask.
+ *
+ * The receiving side remembers the last sequence number per syncable and
+ * packet ID. A delta sync that does not follow the previous sync (for example
+ * the first packet a player receives after starting to watch the sender) is
+ * still applied, and requests a full sync once: the receiver syncs the
+ * syncable back with the packet ID {@code -id - 1}, which only writes a
+ * {@link #REQUEST} and makes the sending side invalidate and sync it again. Only fields of immutable types are compared, all other fields are
+ * sent every time. Syncables that override read or write, and packets with
+ * more than 64 fields, are always synced fully.
+ *
+ * @see NetworkManager#setDeltaSync(boolean)
+ */
+public class DeltaSync {
+
+	static final byte FULL = 0;
+	static final byte DELTA = 1;
+	static final byte REQUEST = 2;
+
+	private final Map<Object, Map<Integer, Snapshot>> snapshots = new MapMaker().weakKeys().makeMap();
+	private final Map<Object, Map<Integer, Received>> received = new MapMaker().weakKeys().makeMap();
+	private final Sender sender;
+	//Read by the threads that sync, written by whoever configures the network
+	private volatile boolean enabled = false;
+	private volatile int fullSyncInterval = 20;
+
+	/**
+	 * Creates a delta sync that can not request full syncs.
+	 */
+	public DeltaSync() {
+		this((id, syncable) -> {
+		});
+	}
+
+	/**
+	 * @param sender Syncs a syncable, used to request full syncs and to answer them
+	 */
+	public DeltaSync(Sender sender) {
+		this.sender = sender;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public DeltaSync setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		if (!enabled) {
+			snapshots.clear();
+		}
+		return this;
+	}
+
+	public int getFullSyncInterval() {
+		return fullSyncInterval;
+	}
+
+	/**
+	 * @param fullSyncInterval The number of delta syncs after which a full sync is sent
+	 * @return This DeltaSync
+	 */
+	public DeltaSync setFullSyncInterval(int fullSyncInterval) {
+		this.fullSyncInterval = fullSyncInterval;
+		return this;
+	}
+
+	/**
+	 * Forces the next sync of a sender to be a full sync. Wrappers should call
+	 * this when a player starts tracking the sender, so the player does not have
+	 * to request the full sync.
+	 *
+	 * @param sender The sender
+	 */
+	public void invalidate(Object sender) {
+		snapshots.remove(sender);
+	}
+
+	/**
+	 * Writes a syncable to a packet, with the packet's ID.
+	 *
+	 * @param syncable The syncable
+	 * @param packet The packet
+	 */
+	public void write(Syncable syncable, Packet packet) {
+		if (packet.getID() < 0) {
+			packet.writeByte(REQUEST);
+			return;
+		}
+
+		SyncSchema schema = SyncSchema.of(syncable.getClass());
+		FieldAccessor[] fields = schema.fields(packet.getID());
+
+		if (!enabled || !schema.defaultImplementation || fields.length > 64) {
+			//Unsequenced, receivers don't expect deltas to follow
+			packet.writeByte(FULL);
+			packet.writeInt(0);
+			syncable.write(packet);
+			return;
+		}
+
+		Snapshot snapshot = snapshots
+			.computeIfAbsent(syncable, key -> new ConcurrentHashMap<>())
+			.computeIfAbsent(packet.getID(), key -> new Snapshot(fields.length));
+
+		synchronized (snapshot) {
+			boolean full = !snapshot.initialized || snapshot.deltas >= fullSyncInterval;
+			long mask = 0;
+			for (int i = 0; i < fields.length; i++) {
+				Object value = fields[i].get(syncable);
+				if (full || !isComparable(fields[i].type()) || !Objects.equals(value, snapshot.values[i])) {
+					mask |= 1L << i;
+				}
+				snapshot.values[i] = value;
+			}
+			if (Long.bitCount(mask) == fields.length) {
+				full = true;
+			}
+
+			snapshot.sequence = next(snapshot.sequence);
+			if (full) {
+				snapshot.initialized = true;
+				snapshot.deltas = 0;
+				packet.writeByte(FULL);
+				packet.writeInt(snapshot.sequence);
+			} else {
+				snapshot.deltas++;
+				packet.writeByte(DELTA);
+				packet.writeInt(snapshot.sequence);
+				packet.writeLong(mask);
+			}
+
+			for (int i = 0; i < fields.length; i++) {
+				if ((mask & (1L << i)) != 0) {
+					SyncSchema.writeField(syncable, fields[i], packet);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads a packet written by {@link #write(Syncable, Packet)} into a syncable.
+	 *
+	 * @param syncable The syncable
+	 * @param packet The packet
+	 */
+	public void read(Syncable syncable, Packet packet) {
+		byte mode = packet.readByte();
+		if (mode == REQUEST) {
+			int id = -packet.getID() - 1;
+			Map<Integer, Snapshot> sent = snapshots.get(syncable);
+			if (sent != null) {
+				sent.remove(id);
+			}
+			sender.sync(id, syncable);
+			return;
+		}
+
+		int sequence = packet.readInt();
+		if (mode == FULL) {
+			syncable.read(packet);
+			if (sequence == 0) {
+				Map<Integer, Received> last = received.get(syncable);
+				if (last != null) {
+					last.remove(packet.getID());
+				}
+			} else {
+				Received last = received(syncable, packet.getID());
+				synchronized (last) {
+					last.sequence = sequence;
+					last.requested = false;
+				}
+			}
+		} else if (mode == DELTA) {
+			FieldAccessor[] fields = SyncSchema.of(syncable.getClass()).fields(packet.getID());
+			long mask = packet.readLong();
+			for (int i = 0; i < fields.length; i++) {
+				if ((mask & (1L << i)) != 0) {
+					SyncSchema.readField(syncable, fields[i], packet);
+				}
+			}
+
+			Received last = received(syncable, packet.getID());
+			boolean request = false;
+			synchronized (last) {
+				if (last.sequence != 0 && sequence == next(last.sequence)) {
+					last.sequence = sequence;
+				} else if (!last.requested) {
+					//Missed a packet, the other fields may be stale
+					last.sequence = 0;
+					last.requested = true;
+					request = true;
+				}
+			}
+			if (request) {
+				sender.sync(-packet.getID() - 1, syncable);
+			}
+		} else {
+			throw new NetworkException("Invalid sync mode: " + mode);
+		}
+	}
+
+	private Received received(Syncable syncable, int id) {
+		return received
+			.computeIfAbsent(syncable, key -> new ConcurrentHashMap<>())
+			.computeIfAbsent(id, key -> new Received());
+	}
+
+	/**
+	 * @return The sequence number after this one, skipping 0
+	 */
+	private static int next(int sequence) {
+		return sequence == Integer.MAX_VALUE ? 1 : sequence + 1;
+	}
+
+	/**
+	 * @return True if values of this type can't change without the field changing.
+	 */
+	private static boolean isComparable(Class<?> type) {
+		return type.isPrimitive()
+			|| type == Boolean.class
+			|| type == Byte.class
+			|| type == Short.class
+			|| type == Integer.class
+			|| type == Long.class
+			|| type == Character.class
+			|| type == Float.class
+			|| type == Double.class
+			|| type == String.class
+			|| type.isEnum()
+			|| type == Vector3D.class
+			|| type == Vector2D.class;
+	}
+
+	private static class Snapshot {
+		private final Object[] values;
+		private boolean initialized;
+		private int deltas;
+		private int sequence;
+
+		private Snapshot(int size) {
+			values = new Object[size];
+		}
+	}
+
+	/**
+	 * The state of a received syncable. A sequence of 0 means the receiver
+	 * doesn't know which sync comes next.
+	 */
+	private static class Received {
+		private int sequence;
+		private boolean requested;
+	}
+
+	/**
+	 * Syncs a syncable with a packet ID.
+	 *
+	 * @see NetworkManager#sync(int, Object)
+	 */
+	@FunctionalInterface
+	public interface Sender {
+		void sync(int id, Object syncable);
+	}
+}
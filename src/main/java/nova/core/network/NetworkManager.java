@@ -2,13 +2,17 @@ package nova.core.network;
 
 import nova.core.entity.component.Player;
 import nova.core.network.NetworkTarget.Side;
+import nova.core.network.handler.BatchPacket;
 import nova.core.network.handler.BlockPacket;
 import nova.core.network.handler.EntityPacket;
 import nova.core.network.handler.PacketHandler;
+import nova.core.util.SectionProfiler;
+import nova.internal.core.Game;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A central network manager.
@@ -19,9 +23,23 @@ public abstract class NetworkManager {
 
 	private final List<PacketHandler<?>> handlers = new ArrayList<>();
 
+	/**
+	 * Caches the resolved packet type and its ID per sender class. Cleared on
+	 * every registration.
+	 */
+	private final Map<Class<?>, RegisteredHandler> senderTypes = new ConcurrentHashMap<>();
+
+	private final DeltaSync deltaSync = new DeltaSync(this::sync);
+
+	private final SyncBatch batch = new SyncBatch();
+	private volatile boolean batching = false;
+	private SyncBatch.FlushListener flushListener = (size, coalesced, nanos) -> {
+	};
+
 	public NetworkManager() {
-		register(new BlockPacket());
-		register(new EntityPacket());
+		register(new BlockPacket(this));
+		register(new EntityPacket(this));
+		register(new BatchPacket(this));
 	}
 
 	/**
@@ -32,14 +50,34 @@ public abstract class NetworkManager {
 	 */
 	public int register(PacketHandler<?> type) {
 		handlers.add(type);
+		senderTypes.clear();
 		return handlers.size() - 1;
 	}
 
 	/**
+	 * Creates a packet. A {@link PacketPool} can be used to reuse
+	 * {@link ByteBufferPacket ByteBufferPackets}, which are
+	 * {@link #release(Packet) released} by the implementation once its
+	 * transport is done with them.
+	 *
 	 * @return A new empty packet
 	 */
 	public abstract Packet newPacket();
 
+	/**
+	 * Releases a packet created by {@link #newPacket()} after it was sent.
+	 * The network manager never releases packets passed to
+	 * {@link #sendPacket(Packet)} itself. Packets that are never released are
+	 * garbage collected, so they are only not reused.
+	 *
+	 * @param packet The packet
+	 */
+	public void release(Packet packet) {
+		if (packet instanceof ByteBufferPacket) {
+			((ByteBufferPacket) packet).release();
+		}
+	}
+
 	public PacketHandler<?> getPacketType(int id) {
 		return handlers.get(id);
 	}
@@ -55,16 +93,32 @@ public abstract class NetworkManager {
 	 * @return The packet type for the packet handler
 	 */
 	public PacketHandler<?> getPacketType(Object handler) {
-		Optional<PacketHandler<?>> first = handlers
-			.stream()
-			.filter(type -> type.isHandlerFor(handler))
-			.findFirst();
+		return resolve(handler).handler;
+	}
 
-		if (first.isPresent()) {
-			return first.get();
-		} else {
-			throw new NetworkException("Invalid packet sender: " + handler);
+	/**
+	 * Gets the ID of the packet type that handles a PacketHandler
+	 *
+	 * @param sender The packet handler
+	 * @return The ID of the packet type for the packet handler
+	 */
+	public int getSenderTypeID(Object sender) {
+		return resolve(sender).id;
+	}
+
+	private RegisteredHandler resolve(Object sender) {
+		RegisteredHandler registered = senderTypes.get(sender.getClass());
+		if (registered == null) {
+			for (int id = 0; id < handlers.size(); id++) {
+				if (handlers.get(id).isHandlerFor(sender)) {
+					registered = new RegisteredHandler(handlers.get(id), id);
+					senderTypes.put(sender.getClass(), registered);
+					return registered;
+				}
+			}
+			throw new NetworkException("Invalid packet sender: " + sender);
 		}
+		return registered;
 	}
 
 	/**
@@ -74,23 +128,31 @@ public abstract class NetworkManager {
 	 * @param packet The packet to send
 	 */
 	public void sendPacket(Object sender, Packet packet) {
-		writePacket(sender, packet);
-		sendPacket(packet);
+		SectionProfiler.start("sendPacket");
+		try {
+			writePacket(sender, packet);
+			sendPacket(packet);
+		} finally {
+			SectionProfiler.end();
+		}
 	}
 
 	/**
 	 * Sends a new custom packet without any overhead.
 	 * This method directly sends the packet. It will not write the PacketType ID, which will cause an error unless the ID is written to the packet already.
+	 * The implementation owns the packet from then on: it may keep it until the transport wrote it,
+	 * and should {@link #release(Packet) release} it once the transport no longer reads from it,
+	 * for example in the write completion callback of an asynchronous transport.
 	 *
 	 * @param packet The packet to send
 	 */
 	public abstract void sendPacket(Packet packet);
 
 	public Packet writePacket(Object sender, Packet packet) {
-		int packetTypeID = getPacketTypeID(getPacketType(sender));
-		packet.writeInt(packetTypeID);
+		RegisteredHandler registered = resolve(sender);
+		packet.writeInt(registered.id);
 		packet.writeInt(packet.getID());
-		((PacketHandler) getPacketType(sender)).write(sender, packet);
+		((PacketHandler) registered.handler).write(sender, packet);
 		return packet;
 	}
 
@@ -106,15 +168,100 @@ public abstract class NetworkManager {
 	/**
 	 * Syncs a PacketHandler between server and client, with a specific packet ID
 	 *
-	 * @param id The packet ID
+	 * @param id The packet ID, negative IDs request a full sync (see {@link DeltaSync})
 	 * @param sender sender {@link Syncable}
 	 */
 	public void sync(int id, Object sender) {
+		if (batching) {
+			if (batch.add(sender, id)) {
+				scheduleFlush();
+			}
+			return;
+		}
+
 		Packet packet = newPacket();
 		packet.setID(id);
 		sendPacket(sender, packet);
 	}
 
+	/**
+	 * Enables or disables batching of syncs. While batching, the syncs of a
+	 * tick are gathered and sent as one packet at the end of the current
+	 * {@link Game#syncTicker() synchronized tick}. Syncing the same sender
+	 * with the same packet ID several times during a tick only sends it once.
+	 *
+	 * @param batching true to enable batching
+	 * @see SyncBatch
+	 */
+	public void setBatching(boolean batching) {
+		this.batching = batching;
+		if (!batching) {
+			flush();
+		}
+	}
+
+	public boolean isBatching() {
+		return batching;
+	}
+
+	/**
+	 * Sets the listener that receives the size and timing of every flushed
+	 * batch of syncs.
+	 *
+	 * @param flushListener The listener
+	 */
+	public void setFlushListener(SyncBatch.FlushListener flushListener) {
+		this.flushListener = flushListener;
+	}
+
+	/**
+	 * Called when the first sync of a batch is queued, to make sure
+	 * {@link #flush()} is called at the end of the current synchronized tick.
+	 */
+	protected void scheduleFlush() {
+		Game.syncTicker().postQueue(this::flush);
+	}
+
+	/**
+	 * Sends all batched syncs as a single packet.
+	 */
+	public void flush() {
+		long start = System.nanoTime();
+		SyncBatch.Frame frame = batch.drain();
+		if (frame.isEmpty()) {
+			return;
+		}
+
+		Packet packet = newPacket();
+		if (frame.size() == 1) {
+			SyncBatch.Entry entry = frame.entries.get(0);
+			packet.setID(entry.id);
+			sendPacket(entry.sender, packet);
+		} else {
+			sendPacket(frame, packet);
+		}
+		flushListener.onFlush(frame.size(), frame.coalesced, System.nanoTime() - start);
+	}
+
+	/**
+	 * Enables or disables delta sync, which only sends the {@link Sync} fields
+	 * that changed since the last sync of a block or entity. Both sides can
+	 * read either kind of packet, so only the sending side needs to enable it.
+	 *
+	 * @param enabled true to enable delta sync
+	 * @see DeltaSync
+	 */
+	public void setDeltaSync(boolean enabled) {
+		deltaSync.setEnabled(enabled);
+	}
+
+	/**
+	 * @return The delta sync state used to write and read syncables
+	 */
+	public DeltaSync deltaSync() {
+		return deltaSync;
+	}
+
 	public abstract void sendChat(Player player, String message);
 
 	/**
@@ -141,4 +288,14 @@ public abstract class NetworkManager {
 	 * @return true if the active side is {@link Side#SERVER}
 	 */
 	public abstract boolean isServer();
+
+	private static class RegisteredHandler {
+		private final PacketHandler<?> handler;
+		private final int id;
+
+		private RegisteredHandler(PacketHandler<?> handler, int id) {
+			this.handler = handler;
+			this.id = id;
+		}
+	}
 }
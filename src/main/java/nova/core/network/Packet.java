@@ -2,6 +2,8 @@ package nova.core.network;
 
 import nova.core.entity.component.Player;
 import nova.core.retention.Data;
+import nova.core.retention.DataReader;
+import nova.core.retention.DataWriter;
 import nova.core.retention.Storable;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
@@ -184,23 +186,13 @@ public interface Packet {
 			.getAsInt();
 	}
 
+	/**
+	 * Writes a {@link Data} type, encoded by a {@link DataWriter}.
+	 */
 	default Packet writeData(Data data) {
-		//Write the data size
-		writeInt(data.size());
-		//Write the data class
-		writeString(data.className);
-
-		data.forEach((k, v) -> {
-				int typeID = getType(v.getClass());
-				//Write key
-				writeString(k);
-				//Write data type
-				writeShort(typeID);
-				//Write value
-				write(v);
-			}
-		);
-
+		byte[] bytes = DataWriter.toBytes(data);
+		writeInt(bytes.length);
+		writeBytes(bytes);
 		return this;
 	}
 
@@ -327,18 +319,7 @@ public interface Packet {
 	 * Reads a {@link Data} type.
 	 */
 	default Data readData() {
-		Data readData = new Data();
-		int size = readInt();
-		readData.className = readString();
-		IntStream
-			.range(0, size)
-			.forEach(i -> {
-				String key = readString();
-				short type = readShort();
-				Object value = read(Data.dataTypes[type]);
-				readData.put(key, value);
-			});
-		return readData;
+		return DataReader.fromBytes(readBytes(readInt()));
 	}
 
 	default Object readStorable() {
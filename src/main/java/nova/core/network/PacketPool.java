@@ -0,0 +1,76 @@
+package nova.core.network;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of {@link ByteBufferPacket ByteBufferPackets}, so their direct
+ * buffers can be reused instead of being allocated for every packet.
+ *
+ * @see ByteBufferPacket#release()
+ */
+public class PacketPool {
+
+	/**
+	 * The initial capacity of new packets.
+	 */
+	public final int initialCapacity;
+	/**
+	 * The largest buffer kept by a released packet. Larger buffers are
+	 * dropped and replaced on the next use, so a single large packet does not
+	 * hold on to its memory forever.
+	 */
+	public final int maxRetainedCapacity;
+	/**
+	 * The maximum number of idle packets kept by the pool.
+	 */
+	public final int maxPooled;
+
+	private final ConcurrentLinkedQueue<ByteBufferPacket> pool = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger pooled = new AtomicInteger();
+
+	public PacketPool() {
+		this(256, 1 << 16, 256);
+	}
+
+	public PacketPool(int initialCapacity, int maxRetainedCapacity, int maxPooled) {
+		if (initialCapacity <= 0 || maxRetainedCapacity <= 0) {
+			throw new IllegalArgumentException("Packet capacities must be positive: " + initialCapacity + ", " + maxRetainedCapacity);
+		}
+		if (maxPooled < 0) {
+			throw new IllegalArgumentException("Negative number of pooled packets: " + maxPooled);
+		}
+		this.initialCapacity = initialCapacity;
+		this.maxRetainedCapacity = maxRetainedCapacity;
+		this.maxPooled = maxPooled;
+	}
+
+	/**
+	 * @return An empty packet, which should be {@link ByteBufferPacket#release() released} once it was sent or read
+	 */
+	public ByteBufferPacket acquire() {
+		ByteBufferPacket packet = pool.poll();
+		if (packet == null) {
+			return new ByteBufferPacket(this, initialCapacity);
+		}
+
+		pooled.decrementAndGet();
+		packet.reset();
+		return packet;
+	}
+
+	void release(ByteBufferPacket packet) {
+		if (pooled.incrementAndGet() <= maxPooled) {
+			pool.add(packet);
+		} else {
+			pooled.decrementAndGet();
+		}
+	}
+
+	/**
+	 * @return The number of idle packets in the pool
+	 */
+	public int size() {
+		return pooled.get();
+	}
+}
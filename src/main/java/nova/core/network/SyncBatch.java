@@ -0,0 +1,133 @@
+package nova.core.network;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gathers the sync requests of a tick, so they can be sent as a single
+ * frame. A sender that is synced several times with the same packet ID
+ * during a tick is only written once, with its state at the time of the
+ * flush. Syncs are sent in the order they were first requested.
+ *
+ * @see NetworkManager#setBatching(boolean)
+ */
+public class SyncBatch {
+
+	private Map<Key, Entry> pending = new LinkedHashMap<>();
+	private int coalesced;
+
+	/**
+	 * Adds a sync request to the batch.
+	 *
+	 * @param sender The sender
+	 * @param id The packet ID
+	 * @return true if this is the first request of the batch
+	 */
+	public synchronized boolean add(Object sender, int id) {
+		Key key = new Key(sender, id);
+		if (pending.containsKey(key)) {
+			coalesced++;
+			return false;
+		}
+
+		pending.put(key, new Entry(sender, id));
+		return pending.size() == 1;
+	}
+
+	/**
+	 * Removes all pending sync requests.
+	 *
+	 * @return A frame of the removed sync requests
+	 */
+	public synchronized Frame drain() {
+		Frame frame = new Frame(new ArrayList<>(pending.values()), coalesced);
+		pending = new LinkedHashMap<>();
+		coalesced = 0;
+		return frame;
+	}
+
+	public synchronized int size() {
+		return pending.size();
+	}
+
+	/**
+	 * A single sync request.
+	 */
+	public static class Entry {
+		public final Object sender;
+		public final int id;
+
+		public Entry(Object sender, int id) {
+			this.sender = sender;
+			this.id = id;
+		}
+	}
+
+	/**
+	 * The sync requests of a tick, sent as one packet.
+	 */
+	public static class Frame {
+		public final List<Entry> entries;
+		/**
+		 * The number of sync requests that were dropped, because the same
+		 * sender and packet ID were already part of the frame.
+		 */
+		public final int coalesced;
+
+		public Frame(List<Entry> entries, int coalesced) {
+			this.entries = Collections.unmodifiableList(entries);
+			this.coalesced = coalesced;
+		}
+
+		public int size() {
+			return entries.size();
+		}
+
+		public boolean isEmpty() {
+			return entries.isEmpty();
+		}
+	}
+
+	/**
+	 * Receives the statistics of every flushed frame.
+	 */
+	@FunctionalInterface
+	public interface FlushListener {
+		/**
+		 * @param size The number of syncs in the frame
+		 * @param coalesced The number of syncs that were merged into the frame's syncs
+		 * @param nanos The time it took to write and send the frame, in nanoseconds
+		 */
+		void onFlush(int size, int coalesced, long nanos);
+	}
+
+	/**
+	 * Compares senders by identity, as blocks and entities may define equality by their state.
+	 */
+	private static class Key {
+		private final Object sender;
+		private final int id;
+
+		private Key(Object sender, int id) {
+			this.sender = sender;
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return sender == other.sender && id == other.id;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(sender) * 31 + id;
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package nova.core.network;
+
+import nova.core.util.FieldAccessor;
+import nova.core.util.ReflectionUtil;
+import nova.core.util.ReflectionUtil.AnnotatedField;
+import nova.core.util.ReflectionUtil.ReflectionException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link Sync} fields of a class, resolved once per class and grouped by
+ * the packet IDs they are synchronized with. Used by the default
+ * implementations of {@link Syncable}.
+ */
+final class SyncSchema {
+
+	private static final ClassValue<SyncSchema> SCHEMAS = new ClassValue<SyncSchema>() {
+		@Override
+		protected SyncSchema computeValue(Class<?> type) {
+			return new SyncSchema(type);
+		}
+	};
+
+	private static final FieldAccessor[] NONE = new FieldAccessor[0];
+
+	private final Map<Integer, FieldAccessor[]> fieldsById = new HashMap<>();
+
+	/**
+	 * True if the class uses the default read and write implementation of
+	 * {@link Syncable}, so its packets only consist of its fields.
+	 */
+	final boolean defaultImplementation;
+
+	private SyncSchema(Class<?> clazz) {
+		defaultImplementation = isDefault(clazz, "read") && isDefault(clazz, "write");
+
+		Map<Integer, List<FieldAccessor>> fields = new HashMap<>();
+		for (AnnotatedField<Sync> field : ReflectionUtil.getRecursiveAnnotatedFields(Sync.class, clazz)) {
+			for (int id : field.annotation.ids()) {
+				List<FieldAccessor> list = fields.computeIfAbsent(id, key -> new ArrayList<>());
+				if (!list.contains(field.accessor())) {
+					list.add(field.accessor());
+				}
+			}
+		}
+		fields.forEach((id, list) -> fieldsById.put(id, list.toArray(new FieldAccessor[list.size()])));
+	}
+
+	private static boolean isDefault(Class<?> clazz, String method) {
+		try {
+			return clazz.getMethod(method, Packet.class).getDeclaringClass() == Syncable.class;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	static SyncSchema of(Class<?> clazz) {
+		return SCHEMAS.get(clazz);
+	}
+
+	static void readField(Syncable syncable, FieldAccessor accessor, Packet packet) {
+		try {
+			Object o = accessor.get(syncable);
+			if (o instanceof Syncable) {
+				((Syncable) o).read(packet);
+			} else {
+				accessor.set(syncable, packet.read(accessor.type()));
+			}
+		} catch (ReflectionException e) {
+			e.printStackTrace();
+		}
+	}
+
+	static void writeField(Syncable syncable, FieldAccessor accessor, Packet packet) {
+		try {
+			packet.write(accessor.get(syncable));
+		} catch (ReflectionException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * @param id The packet ID
+	 * @return The fields to synchronize with the packet, in declaration order
+	 */
+	FieldAccessor[] fields(int id) {
+		return fieldsById.getOrDefault(id, NONE);
+	}
+}
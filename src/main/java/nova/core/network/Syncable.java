@@ -1,8 +1,6 @@
 package nova.core.network;
 
-import nova.core.util.ReflectionUtil;
-
-import java.util.Arrays;
+import nova.core.util.FieldAccessor;
 
 /**
  * @author Calclavia
@@ -15,22 +13,9 @@ public interface Syncable {
 	 * @param packet - data encoded into the packet.
 	 */
 	default void read(Packet packet) {
-		ReflectionUtil.forEachRecursiveAnnotatedField(Sync.class, getClass(), (field, annotation) -> {
-			if (Arrays.stream(annotation.ids()).anyMatch(i -> i == packet.getID())) {
-				try {
-					field.setAccessible(true);
-					Object o = field.get(this);
-					if (o instanceof Syncable) {
-						((Syncable) o).read(packet);
-					} else {
-						field.set(this, packet.read(field.getType()));
-					}
-					field.setAccessible(false);
-				} catch (IllegalAccessException e) {
-					e.printStackTrace();
-				}
-			}
-		});
+		for (FieldAccessor accessor : SyncSchema.of(getClass()).fields(packet.getID())) {
+			SyncSchema.readField(this, accessor, packet);
+		}
 	}
 
 	/**
@@ -39,17 +24,9 @@ public interface Syncable {
 	 * @param packet - data encoded into the packet
 	 */
 	default void write(Packet packet) {
-		ReflectionUtil.forEachRecursiveAnnotatedField(Sync.class, getClass(), (field, annotation) -> {
-			if (Arrays.stream(annotation.ids()).anyMatch(i -> i == packet.getID())) {
-				try {
-					field.setAccessible(true);
-					packet.write(field.get(this));
-					field.setAccessible(false);
-				} catch (IllegalAccessException e) {
-					e.printStackTrace();
-				}
-			}
-		});
+		for (FieldAccessor accessor : SyncSchema.of(getClass()).fields(packet.getID())) {
+			SyncSchema.writeField(this, accessor, packet);
+		}
 	}
 
 }
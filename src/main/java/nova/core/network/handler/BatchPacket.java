@@ -0,0 +1,81 @@
+package nova.core.network.handler;
+
+import nova.core.network.ByteBufferPacket;
+import nova.core.network.NetworkManager;
+import nova.core.network.Packet;
+import nova.core.network.PacketPool;
+import nova.core.network.SyncBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles frames of batched syncs
+ *
+ * Packet Structure:
+ * 1. Number of syncs
+ * 2. For every sync: the length of the sync, followed by its packet type ID,
+ * packet ID and the data of the packet type
+ *
+ * Every sync is read from its own packet of its length, so a sync that fails
+ * to read or reads the wrong number of bytes is logged and skipped without
+ * affecting the other syncs of the frame.
+ *
+ * @see SyncBatch
+ */
+public class BatchPacket implements PacketHandler<SyncBatch.Frame> {
+
+	private static final Logger logger = LoggerFactory.getLogger(BatchPacket.class);
+
+	private final NetworkManager network;
+	//Holds single syncs while they are written or read
+	private final PacketPool pool = new PacketPool();
+
+	public BatchPacket(NetworkManager network) {
+		this.network = network;
+	}
+
+	@Override
+	public void read(Packet packet) {
+		int size = packet.readInt();
+		for (int i = 0; i < size; i++) {
+			byte[] bytes = packet.readBytes(packet.readInt());
+			ByteBufferPacket entry = pool.acquire();
+			try {
+				entry.setPlayer(packet.player());
+				entry.writeBytes(bytes);
+				PacketHandler<?> type = network.getPacketType(entry.readInt());
+				entry.setID(entry.readInt());
+				type.read(entry);
+				if (entry.readableBytes() > 0) {
+					logger.warn("Sync {} of {} in a batch left {} bytes unread", i + 1, size, entry.readableBytes());
+				}
+			} catch (RuntimeException e) {
+				logger.error("Failed to read sync " + (i + 1) + " of " + size + " in a batch", e);
+			} finally {
+				entry.release();
+			}
+		}
+	}
+
+	@Override
+	public void write(SyncBatch.Frame frame, Packet packet) {
+		packet.writeInt(frame.size());
+		for (SyncBatch.Entry entry : frame.entries) {
+			ByteBufferPacket entryPacket = pool.acquire();
+			try {
+				entryPacket.setID(entry.id);
+				network.writePacket(entry.sender, entryPacket);
+				byte[] bytes = entryPacket.readBytes(entryPacket.readableBytes());
+				packet.writeInt(bytes.length);
+				packet.writeBytes(bytes);
+			} finally {
+				entryPacket.release();
+			}
+		}
+	}
+
+	@Override
+	public boolean isHandlerFor(Object handler) {
+		return handler instanceof SyncBatch.Frame;
+	}
+}
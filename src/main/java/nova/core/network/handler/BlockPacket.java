@@ -3,6 +3,7 @@ package nova.core.network.handler;
 import nova.core.block.Block;
 import nova.core.entity.Entity;
 import nova.core.network.NetworkException;
+import nova.core.network.NetworkManager;
 import nova.core.network.Packet;
 import nova.core.network.Syncable;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
@@ -22,6 +23,12 @@ import java.util.Optional;
  */
 public class BlockPacket implements PacketHandler<Block> {
 
+	private final NetworkManager network;
+
+	public BlockPacket(NetworkManager network) {
+		this.network = network;
+	}
+
 	@Override
 	public void read(Packet packet) {
 		Entity entity = packet.player().entity();
@@ -32,7 +39,7 @@ public class BlockPacket implements PacketHandler<Block> {
 		if (opBlock.isPresent()) {
 			Block block = opBlock.get();
 			if (block instanceof Syncable) {
-				((Syncable) block).read(packet);
+				network.deltaSync().read((Syncable) block, packet);
 				return;
 			}
 		}
@@ -46,7 +53,7 @@ public class BlockPacket implements PacketHandler<Block> {
 			packet.writeInt((int) position.getX());
 			packet.writeInt((int) position.getY());
 			packet.writeInt((int) position.getZ());
-			((Syncable) block).write(packet);
+			network.deltaSync().write((Syncable) block, packet);
 			return;
 		}
 
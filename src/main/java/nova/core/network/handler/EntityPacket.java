@@ -2,6 +2,7 @@ package nova.core.network.handler;
 
 import nova.core.entity.Entity;
 import nova.core.network.NetworkException;
+import nova.core.network.NetworkManager;
 import nova.core.network.Packet;
 import nova.core.network.Syncable;
 
@@ -18,6 +19,12 @@ import java.util.Optional;
  */
 public class EntityPacket implements PacketHandler<Entity> {
 
+	private final NetworkManager network;
+
+	public EntityPacket(NetworkManager network) {
+		this.network = network;
+	}
+
 	@Override
 	public void read(Packet packet) {
 		Entity playerEntity = packet.player().entity();
@@ -28,7 +35,7 @@ public class EntityPacket implements PacketHandler<Entity> {
 		if (op.isPresent()) {
 			Entity entity = op.get();
 			if (entity instanceof Syncable) {
-				((Syncable) entity).read(packet);
+				network.deltaSync().read((Syncable) entity, packet);
 				return;
 			}
 		}
@@ -39,7 +46,7 @@ public class EntityPacket implements PacketHandler<Entity> {
 	public void write(Entity entity, Packet packet) {
 		if (entity instanceof Syncable) {
 			packet.write(entity.getUniqueID());
-			((Syncable) entity).write(packet);
+			network.deltaSync().write((Syncable) entity, packet);
 			return;
 		}
 
@@ -13,5 +13,13 @@ public interface PacketHandler<HANDLER> {
 
 	void write(HANDLER handler, Packet packet);
 
+	/**
+	 * Checks if this packet handler handles an object. The
+	 * {@link nova.core.network.NetworkManager} caches the result per class of
+	 * the object, so it should only depend on the object's class.
+	 *
+	 * @param handler The object
+	 * @return true if this packet handler handles the object
+	 */
 	boolean isHandlerFor(Object handler);
 }
@@ -3,10 +3,19 @@ package nova.core.retention;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
 
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * The data class is capable of storing named data.
@@ -25,6 +34,17 @@ import java.util.Map;
  * - Enumerator
  * - Storable (Converted into Data)
  * - Data
+ *
+ * Data can be written to and read from a compact binary format by
+ * {@link DataWriter} and {@link DataReader}.
+ *
+ * Values put with the typed setters, such as {@link #putInt(String, int)} or
+ * {@link #putVector3D(String, Vector3D)}, are stored unboxed in arrays of the
+ * Data instead of entries of the map, so a Data holds the same few arrays
+ * however many typed values are put in it. They can be read back with the
+ * matching typed getters without any allocation. Reading them through the
+ * {@link Map} methods and views boxes them on every read, and a vector is
+ * boxed into a new nested Data.
  * @author Calclavia
  */
 //TODO: Add collection and array support
@@ -48,14 +68,49 @@ public class Data extends HashMap<String, Object> {
 		Vector3D.class,
 		Vector2D.class };
 
+	private static final ClassValue<Boolean> IS_DATA_TYPE = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			return Arrays.stream(dataTypes).anyMatch(clazz -> clazz.isAssignableFrom(type));
+		}
+	};
+
+	private static final String[] NO_KEYS = new String[0];
+	private static final int[] NO_HASHES = new int[0];
+	private static final byte[] NO_TYPES = new byte[0];
+	private static final long[] NO_BITS = new long[0];
+
+	//Types of unboxed values. Integral types come first.
+	static final byte BOOLEAN = 0;
+	static final byte INTEGER = 1;
+	static final byte LONG = 2;
+	static final byte FLOAT = 3;
+	static final byte DOUBLE = 4;
+	static final byte VECTOR3D = 5;
+
 	public String className;
 
+	//The unboxed values, in parallel arrays. A key is either in the map or in these arrays, never in both.
+	String[] unboxedKeys = NO_KEYS;
+	private int[] unboxedHashes = NO_HASHES;
+	byte[] unboxedTypes = NO_TYPES;
+	//The value as raw long bits. For a vector, the bits of its x.
+	long[] unboxedBits = NO_BITS;
+	//The y and z of vectors, created when the first vector is put
+	double[] unboxedY;
+	double[] unboxedZ;
+	int unboxedCount;
+
 	public Data() {
 
 	}
 
 	public Data(Class clazz) {
-		className = clazz.getName();
+		this(clazz.getName());
+	}
+
+	Data(String className) {
+		this.className = className;
 		super.put("class", className);
 	}
 
@@ -68,8 +123,6 @@ public class Data extends HashMap<String, Object> {
 	public static Data serialize(Storable obj) {
 		Data data = new Data(obj.getClass());
 		obj.save(data);
-		data.putIfAbsent("class", obj.getClass().getName());
-		obj.save(data);
 		return data;
 	}
 
@@ -120,15 +173,27 @@ public class Data extends HashMap<String, Object> {
 	}
 
 	public void putAll(Data m) {
-		super.putAll(m);
+		for (Map.Entry<String, Object> entry : m.mappedEntries()) {
+			putMapped(entry.getKey(), entry.getValue());
+			if (entry.getKey().equals("class")) {
+				className = (String) entry.getValue();
+			}
+		}
+		for (int i = 0; i < m.unboxedCount; i++) {
+			int slot = unboxedSlot(m.unboxedKeys[i], m.unboxedTypes[i]);
+			unboxedBits[slot] = m.unboxedBits[i];
+			if (m.unboxedTypes[i] == VECTOR3D) {
+				unboxedY[slot] = m.unboxedY[i];
+				unboxedZ[slot] = m.unboxedZ[i];
+			}
+		}
 	}
 
 	@Override
 	public Object put(String key, Object value) {
 		assert key != null && value != null;
 		assert !key.equals("class");
-		final Object check = value;
-		assert Arrays.stream(dataTypes).anyMatch(clazz -> clazz.isAssignableFrom(check.getClass()));
+		assert IS_DATA_TYPE.get(value.getClass());
 
 		if (value instanceof Enum) {
 			Data enumData = new Data(value.getClass());
@@ -149,7 +214,7 @@ public class Data extends HashMap<String, Object> {
 			value = serialize((Storable) value);
 		}
 
-		return super.put(key, value);
+		return putMapped(key, value);
 	}
 
 	/**
@@ -157,7 +222,96 @@ public class Data extends HashMap<String, Object> {
 	 */
 	@SuppressWarnings("unchecked")
 	public <T> T get(String key) {
-		return (T) super.get(key);
+		return (T) get((Object) key);
+	}
+
+	public Data putBoolean(String key, boolean value) {
+		int slot = unboxedSlot(key, BOOLEAN);
+		unboxedBits[slot] = value ? 1 : 0;
+		return this;
+	}
+
+	public Data putInt(String key, int value) {
+		int slot = unboxedSlot(key, INTEGER);
+		unboxedBits[slot] = value;
+		return this;
+	}
+
+	public Data putLong(String key, long value) {
+		int slot = unboxedSlot(key, LONG);
+		unboxedBits[slot] = value;
+		return this;
+	}
+
+	public Data putFloat(String key, float value) {
+		int slot = unboxedSlot(key, FLOAT);
+		unboxedBits[slot] = Float.floatToRawIntBits(value);
+		return this;
+	}
+
+	public Data putDouble(String key, double value) {
+		int slot = unboxedSlot(key, DOUBLE);
+		unboxedBits[slot] = Double.doubleToRawLongBits(value);
+		return this;
+	}
+
+	/**
+	 * Stores a vector as three unboxed doubles, instead of a nested Data.
+	 */
+	public Data putVector3D(String key, Vector3D value) {
+		return putVector3D(key, value.getX(), value.getY(), value.getZ());
+	}
+
+	public Data putVector3D(String key, double x, double y, double z) {
+		int slot = unboxedSlot(key, VECTOR3D);
+		if (unboxedY == null) {
+			unboxedY = new double[unboxedKeys.length];
+			unboxedZ = new double[unboxedKeys.length];
+		}
+		unboxedBits[slot] = Double.doubleToRawLongBits(x);
+		unboxedY[slot] = y;
+		unboxedZ[slot] = z;
+		return this;
+	}
+
+	public boolean getBoolean(String key) {
+		int slot = slot(key);
+		if (slot >= 0 && unboxedTypes[slot] == BOOLEAN) {
+			return unboxedBits[slot] != 0;
+		}
+		return (Boolean) get((Object) key);
+	}
+
+	public int getInt(String key) {
+		int slot = slot(key);
+		if (slot >= 0 && unboxedTypes[slot] != VECTOR3D) {
+			return unboxedTypes[slot] <= LONG ? (int) unboxedBits[slot] : (int) doubleValue(slot);
+		}
+		return ((Number) get((Object) key)).intValue();
+	}
+
+	public long getLong(String key) {
+		int slot = slot(key);
+		if (slot >= 0 && unboxedTypes[slot] != VECTOR3D) {
+			return unboxedTypes[slot] <= LONG ? unboxedBits[slot] : (long) doubleValue(slot);
+		}
+		return ((Number) get((Object) key)).longValue();
+	}
+
+	public float getFloat(String key) {
+		int slot = slot(key);
+		if (slot >= 0 && unboxedTypes[slot] != VECTOR3D) {
+			return (float) doubleValue(slot);
+		}
+		return ((Number) get((Object) key)).floatValue();
+	}
+
+	public double getDouble(String key) {
+		int slot = slot(key);
+		if (slot >= 0 && unboxedTypes[slot] != VECTOR3D) {
+			return doubleValue(slot);
+		}
+		return ((Number) get((Object) key)).doubleValue();
 	}
 
 	public <T extends Enum<T>> T getEnum(String key) {
@@ -171,6 +325,10 @@ public class Data extends HashMap<String, Object> {
 	}
 
 	public Vector3D getVector3D(String key) {
+		int slot = slot(key);
+		if (slot >= 0 && unboxedTypes[slot] == VECTOR3D) {
+			return new Vector3D(Double.longBitsToDouble(unboxedBits[slot]), unboxedY[slot], unboxedZ[slot]);
+		}
 		Data data = get(key);
 		return new Vector3D(data.get("x"), data.get("y"), data.get("z"));
 	}
@@ -192,4 +350,497 @@ public class Data extends HashMap<String, Object> {
 		}
 	}
 
+	// ###################
+	// ### Map methods ###
+	// ###################
+
+	@Override
+	public int size() {
+		return super.size() + unboxedCount;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return slot(key) >= 0 || super.containsKey(key);
+	}
+
+	@Override
+	public Object get(Object key) {
+		int slot = slot(key);
+		return slot >= 0 ? box(slot) : super.get(key);
+	}
+
+	@Override
+	public Object getOrDefault(Object key, Object defaultValue) {
+		int slot = slot(key);
+		return slot >= 0 ? box(slot) : super.getOrDefault(key, defaultValue);
+	}
+
+	@Override
+	public Object remove(Object key) {
+		int slot = slot(key);
+		if (slot >= 0) {
+			Object previous = box(slot);
+			removeSlot(slot);
+			return previous;
+		}
+		return super.remove(key);
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		Arrays.fill(unboxedKeys, 0, unboxedCount, null);
+		unboxedCount = 0;
+	}
+
+	@Override
+	public Object putIfAbsent(String key, Object value) {
+		return containsKey(key) ? get(key) : put(key, value);
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return new AbstractSet<String>() {
+			@Override
+			public Iterator<String> iterator() {
+				return new ViewIterator<String>() {
+					@Override
+					String mapped(Map.Entry<String, Object> entry) {
+						return entry.getKey();
+					}
+
+					@Override
+					String unboxed(int slot) {
+						return unboxedKeys[slot];
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return Data.this.size();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return containsKey(o);
+			}
+
+			@Override
+			public boolean remove(Object o) {
+				if (containsKey(o)) {
+					Data.this.remove(o);
+					return true;
+				}
+				return false;
+			}
+
+			@Override
+			public void clear() {
+				Data.this.clear();
+			}
+		};
+	}
+
+	@Override
+	public Collection<Object> values() {
+		return new AbstractCollection<Object>() {
+			@Override
+			public Iterator<Object> iterator() {
+				return new ViewIterator<Object>() {
+					@Override
+					Object mapped(Map.Entry<String, Object> entry) {
+						return entry.getValue();
+					}
+
+					@Override
+					Object unboxed(int slot) {
+						return box(slot);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return Data.this.size();
+			}
+
+			@Override
+			public void clear() {
+				Data.this.clear();
+			}
+		};
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		return new AbstractSet<Map.Entry<String, Object>>() {
+			@Override
+			public Iterator<Map.Entry<String, Object>> iterator() {
+				return new ViewIterator<Map.Entry<String, Object>>() {
+					@Override
+					Map.Entry<String, Object> mapped(Map.Entry<String, Object> entry) {
+						return entry;
+					}
+
+					@Override
+					Map.Entry<String, Object> unboxed(int slot) {
+						return new BoxedEntry(unboxedKeys[slot], box(slot));
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return Data.this.size();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				if (!(o instanceof Map.Entry)) {
+					return false;
+				}
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+				return containsKey(entry.getKey()) && Objects.equals(get(entry.getKey()), entry.getValue());
+			}
+
+			@Override
+			public boolean remove(Object o) {
+				return o instanceof Map.Entry && Data.this.remove(((Map.Entry<?, ?>) o).getKey(), ((Map.Entry<?, ?>) o).getValue());
+			}
+
+			@Override
+			public void clear() {
+				Data.this.clear();
+			}
+		};
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return values().contains(value);
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super String, ? super Object> action) {
+		super.forEach(action);
+		for (int i = 0; i < unboxedCount; i++) {
+			action.accept(unboxedKeys[i], box(i));
+		}
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		if (containsKey(key) && Objects.equals(get(key), value)) {
+			remove(key);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean replace(String key, Object oldValue, Object newValue) {
+		if (containsKey(key) && Objects.equals(get(key), oldValue)) {
+			put(key, newValue);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public Object replace(String key, Object value) {
+		return containsKey(key) ? put(key, value) : null;
+	}
+
+	@Override
+	public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+		super.replaceAll(function);
+		//Backwards, since putting a value removes its slot and moves the later ones
+		for (int i = unboxedCount - 1; i >= 0; i--) {
+			put(unboxedKeys[i], function.apply(unboxedKeys[i], box(i)));
+		}
+	}
+
+	@Override
+	public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+		Object value = get(key);
+		if (value == null) {
+			value = mappingFunction.apply(key);
+			if (value != null) {
+				put(key, value);
+			}
+		}
+		return value;
+	}
+
+	@Override
+	public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+		Object value = get(key);
+		if (value == null) {
+			return null;
+		}
+		return compute(key, remappingFunction);
+	}
+
+	@Override
+	public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+		Object value = remappingFunction.apply(key, get(key));
+		if (value == null) {
+			remove(key);
+		} else {
+			put(key, value);
+		}
+		return value;
+	}
+
+	@Override
+	public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+		Object old = get(key);
+		return compute(key, (k, current) -> old == null ? value : remappingFunction.apply(old, value));
+	}
+
+	@Override
+	public Object clone() {
+		//HashMap copies all entries into the map of the clone through entrySet(), which boxes the unboxed ones
+		Data clone = (Data) super.clone();
+		for (int i = 0; i < unboxedCount; i++) {
+			clone.removeMapped(unboxedKeys[i]);
+		}
+		clone.unboxedKeys = unboxedKeys.clone();
+		clone.unboxedHashes = unboxedHashes.clone();
+		clone.unboxedTypes = unboxedTypes.clone();
+		clone.unboxedBits = unboxedBits.clone();
+		clone.unboxedY = unboxedY != null ? unboxedY.clone() : null;
+		clone.unboxedZ = unboxedZ != null ? unboxedZ.clone() : null;
+		return clone;
+	}
+
+	// #######################
+	// ### Unboxed storage ###
+	// #######################
+
+	/**
+	 * @return The entries that are stored in the map, without the unboxed values.
+	 */
+	Set<Map.Entry<String, Object>> mappedEntries() {
+		return super.entrySet();
+	}
+
+	/**
+	 * Puts a value in the map, removing an unboxed value of the key.
+	 */
+	private Object putMapped(String key, Object value) {
+		int slot = slot(key);
+		if (slot >= 0) {
+			Object previous = box(slot);
+			removeSlot(slot);
+			super.put(key, value);
+			return previous;
+		}
+		return super.put(key, value);
+	}
+
+	private void removeMapped(Object key) {
+		super.remove(key);
+	}
+
+	/**
+	 * Finds the slot of an unboxed value. Data usually holds few values, so
+	 * the slots are searched one by one, comparing the hashes of the keys first.
+	 * @return The slot, or -1 if the key has no unboxed value
+	 */
+	private int slot(Object key) {
+		if (unboxedCount == 0 || key == null) {
+			return -1;
+		}
+		int hash = key.hashCode();
+		for (int i = 0; i < unboxedCount; i++) {
+			if (unboxedHashes[i] == hash && unboxedKeys[i].equals(key)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds or adds the slot of an unboxed value, and sets its type.
+	 */
+	private int unboxedSlot(String key, byte type) {
+		assert key != null;
+		assert !key.equals("class");
+
+		int slot = slot(key);
+		if (slot < 0) {
+			super.remove(key);
+			if (unboxedCount == unboxedKeys.length) {
+				int length = Math.max(4, unboxedCount * 2);
+				unboxedKeys = Arrays.copyOf(unboxedKeys, length);
+				unboxedHashes = Arrays.copyOf(unboxedHashes, length);
+				unboxedTypes = Arrays.copyOf(unboxedTypes, length);
+				unboxedBits = Arrays.copyOf(unboxedBits, length);
+				if (unboxedY != null) {
+					unboxedY = Arrays.copyOf(unboxedY, length);
+					unboxedZ = Arrays.copyOf(unboxedZ, length);
+				}
+			}
+			slot = unboxedCount++;
+			unboxedKeys[slot] = key;
+			unboxedHashes[slot] = key.hashCode();
+		}
+		unboxedTypes[slot] = type;
+		return slot;
+	}
+
+	/**
+	 * Removes an unboxed value, moving the following ones down one slot.
+	 */
+	private void removeSlot(int slot) {
+		int moved = unboxedCount - slot - 1;
+		System.arraycopy(unboxedKeys, slot + 1, unboxedKeys, slot, moved);
+		System.arraycopy(unboxedHashes, slot + 1, unboxedHashes, slot, moved);
+		System.arraycopy(unboxedTypes, slot + 1, unboxedTypes, slot, moved);
+		System.arraycopy(unboxedBits, slot + 1, unboxedBits, slot, moved);
+		if (unboxedY != null) {
+			System.arraycopy(unboxedY, slot + 1, unboxedY, slot, moved);
+			System.arraycopy(unboxedZ, slot + 1, unboxedZ, slot, moved);
+		}
+		unboxedKeys[--unboxedCount] = null;
+	}
+
+	private double doubleValue(int slot) {
+		long bits = unboxedBits[slot];
+		switch (unboxedTypes[slot]) {
+			case INTEGER:
+			case LONG:
+			case BOOLEAN:
+				return bits;
+			case FLOAT:
+				return Float.intBitsToFloat((int) bits);
+			default:
+				return Double.longBitsToDouble(bits);
+		}
+	}
+
+	private Object box(int slot) {
+		long bits = unboxedBits[slot];
+		switch (unboxedTypes[slot]) {
+			case BOOLEAN:
+				return bits != 0;
+			case INTEGER:
+				return (int) bits;
+			case LONG:
+				return bits;
+			case FLOAT:
+				return Float.intBitsToFloat((int) bits);
+			case DOUBLE:
+				return Double.longBitsToDouble(bits);
+			default:
+				Data vectorData = new Data(Vector3D.class);
+				vectorData.putDouble("x", Double.longBitsToDouble(bits));
+				vectorData.putDouble("y", unboxedY[slot]);
+				vectorData.putDouble("z", unboxedZ[slot]);
+				return vectorData;
+		}
+	}
+
+	/**
+	 * Iterates over the entries of the map, then over the unboxed values. The
+	 * unboxed values are visited from the last slot down, so removing or
+	 * replacing the current value only moves slots that were already visited.
+	 */
+	private abstract class ViewIterator<T> implements Iterator<T> {
+		private final Iterator<Map.Entry<String, Object>> entries = Data.super.entrySet().iterator();
+		private int slot = unboxedCount;
+		private int last = -1;
+		private boolean fromMap;
+
+		@Override
+		public boolean hasNext() {
+			return entries.hasNext() || Math.min(slot, unboxedCount) > 0;
+		}
+
+		@Override
+		public T next() {
+			if (entries.hasNext()) {
+				fromMap = true;
+				return mapped(entries.next());
+			}
+			slot = Math.min(slot, unboxedCount);
+			if (slot <= 0) {
+				throw new NoSuchElementException();
+			}
+			fromMap = false;
+			last = --slot;
+			return unboxed(last);
+		}
+
+		@Override
+		public void remove() {
+			if (fromMap) {
+				entries.remove();
+				return;
+			}
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			removeSlot(last);
+			last = -1;
+		}
+
+		abstract T mapped(Map.Entry<String, Object> entry);
+
+		abstract T unboxed(int slot);
+	}
+
+	/**
+	 * An entry of a boxed unboxed value. Setting its value puts it in the map.
+	 */
+	private final class BoxedEntry implements Map.Entry<String, Object> {
+		private final String key;
+		private Object value;
+
+		private BoxedEntry(String key, Object value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+
+		@Override
+		public Object getValue() {
+			return value;
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			put(key, value);
+			Object previous = this.value;
+			this.value = value;
+			return previous;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Map.Entry && key.equals(((Map.Entry<?, ?>) o).getKey()) && Objects.equals(value, ((Map.Entry<?, ?>) o).getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode() ^ Objects.hashCode(value);
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
 }
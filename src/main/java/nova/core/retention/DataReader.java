@@ -0,0 +1,135 @@
+package nova.core.retention;
+
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessageUnpacker;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Reads {@link Data} written by a {@link DataWriter}. Data objects have to be
+ * read from the same reader in the order they were written with the same
+ * writer, as they share their interned keys and class names.
+ */
+public class DataReader implements Closeable {
+
+	private final MessageUnpacker unpacker;
+	private final List<String> keys = new ArrayList<>();
+	private final List<String> classNames = new ArrayList<>();
+
+	public DataReader(InputStream in) {
+		this.unpacker = MessagePack.newDefaultUnpacker(in);
+	}
+
+	/**
+	 * Decodes a single Data object.
+	 * @param bytes The bytes written by {@link DataWriter#toBytes(Data)}
+	 * @return The data
+	 */
+	public static Data fromBytes(byte[] bytes) {
+		try (DataReader reader = new DataReader(new ByteArrayInputStream(bytes))) {
+			return reader.read();
+		} catch (IOException e) {
+			throw new DataException(e);
+		}
+	}
+
+	/**
+	 * Reads the next Data object.
+	 * @return The data
+	 * @throws IOException If the underlying stream fails
+	 */
+	public Data read() throws IOException {
+		String className = readReference(classNames);
+		Data data = className != null ? new Data(className) : new Data();
+
+		int size = unpacker.unpackMapHeader();
+		for (int i = 0; i < size; i++) {
+			String key = readReference(keys);
+			int tag = unpacker.unpackInt();
+			//Keep primitives unboxed
+			switch (tag) {
+				case DataWriter.BOOLEAN:
+					data.putBoolean(key, unpacker.unpackBoolean());
+					break;
+				case DataWriter.INTEGER:
+					data.putInt(key, unpacker.unpackInt());
+					break;
+				case DataWriter.LONG:
+					data.putLong(key, unpacker.unpackLong());
+					break;
+				case DataWriter.FLOAT:
+					data.putFloat(key, unpacker.unpackFloat());
+					break;
+				case DataWriter.DOUBLE:
+					data.putDouble(key, unpacker.unpackDouble());
+					break;
+				case DataWriter.VECTOR3D:
+					data.putVector3D(key, unpacker.unpackDouble(), unpacker.unpackDouble(), unpacker.unpackDouble());
+					break;
+				default:
+					data.put(key, readValue(tag));
+			}
+		}
+		return data;
+	}
+
+	private String readReference(List<String> table) throws IOException {
+		int id = unpacker.unpackInt();
+		if (id == DataWriter.NO_REFERENCE) {
+			return null;
+		} else if (id == DataWriter.NEW_REFERENCE) {
+			String value = unpacker.unpackString();
+			table.add(value);
+			return value;
+		} else {
+			return table.get(id);
+		}
+	}
+
+	private Object readValue(int tag) throws IOException {
+		switch (tag) {
+			case DataWriter.BOOLEAN:
+				return unpacker.unpackBoolean();
+			case DataWriter.BYTE:
+				return unpacker.unpackByte();
+			case DataWriter.SHORT:
+				return unpacker.unpackShort();
+			case DataWriter.INTEGER:
+				return unpacker.unpackInt();
+			case DataWriter.LONG:
+				return unpacker.unpackLong();
+			case DataWriter.CHARACTER:
+				return (char) unpacker.unpackInt();
+			case DataWriter.FLOAT:
+				return unpacker.unpackFloat();
+			case DataWriter.DOUBLE:
+				return unpacker.unpackDouble();
+			case DataWriter.STRING:
+				return unpacker.unpackString();
+			case DataWriter.DATA:
+				return read();
+			case DataWriter.LIST:
+			case DataWriter.SET:
+				int size = unpacker.unpackArrayHeader();
+				Collection<Object> collection = tag == DataWriter.SET ? new HashSet<Object>() : new ArrayList<Object>(size);
+				for (int i = 0; i < size; i++) {
+					collection.add(readValue(unpacker.unpackInt()));
+				}
+				return collection;
+			default:
+				throw new DataException("Invalid data tag: %s", tag);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		unpacker.close();
+	}
+}
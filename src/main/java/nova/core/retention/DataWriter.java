@@ -0,0 +1,198 @@
+package nova.core.retention;
+
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessagePacker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes {@link Data} in a compact binary format based on MessagePack, to be
+ * read back by a {@link DataReader}.
+ *
+ * Keys and class names are interned per stream: the first occurrence is
+ * written as a string, every later one only as a small ID. Primitives are
+ * written with their own MessagePack type, so they take no more space than
+ * they need. Writing several Data objects to the same writer shares the
+ * interned strings between all of them.
+ */
+public class DataWriter implements Flushable, Closeable {
+
+	//Value tags
+	static final int BOOLEAN = 0;
+	static final int BYTE = 1;
+	static final int SHORT = 2;
+	static final int INTEGER = 3;
+	static final int LONG = 4;
+	static final int CHARACTER = 5;
+	static final int FLOAT = 6;
+	static final int DOUBLE = 7;
+	static final int STRING = 8;
+	static final int DATA = 9;
+	static final int LIST = 10;
+	static final int SET = 11;
+	static final int VECTOR3D = 12;
+
+	//References to interned strings
+	static final int NEW_REFERENCE = -1;
+	static final int NO_REFERENCE = -2;
+
+	private final MessagePacker packer;
+	private final Map<String, Integer> keys = new HashMap<>();
+	private final Map<String, Integer> classNames = new HashMap<>();
+
+	public DataWriter(OutputStream out) {
+		this.packer = MessagePack.newDefaultPacker(out);
+	}
+
+	/**
+	 * Encodes a single Data object.
+	 * @param data The data
+	 * @return The encoded bytes
+	 */
+	public static byte[] toBytes(Data data) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (DataWriter writer = new DataWriter(out)) {
+			writer.write(data);
+		} catch (IOException e) {
+			throw new DataException(e);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Writes a Data object and all the values in it.
+	 * @param data The data
+	 * @return This writer
+	 * @throws IOException If the underlying stream fails
+	 */
+	public DataWriter write(Data data) throws IOException {
+		writeReference(classNames, data.className);
+
+		int size = data.size();
+		if (data.containsKey("class")) {
+			size--;
+		}
+		packer.packMapHeader(size);
+
+		for (Map.Entry<String, Object> entry : data.mappedEntries()) {
+			if (entry.getKey().equals("class")) {
+				continue;
+			}
+			writeReference(keys, entry.getKey());
+			writeValue(entry.getValue());
+		}
+		for (int i = 0; i < data.unboxedCount; i++) {
+			writeReference(keys, data.unboxedKeys[i]);
+			writeUnboxed(data, i);
+		}
+		return this;
+	}
+
+	private void writeUnboxed(Data data, int slot) throws IOException {
+		long bits = data.unboxedBits[slot];
+		switch (data.unboxedTypes[slot]) {
+			case Data.BOOLEAN:
+				packer.packInt(BOOLEAN);
+				packer.packBoolean(bits != 0);
+				break;
+			case Data.INTEGER:
+				packer.packInt(INTEGER);
+				packer.packInt((int) bits);
+				break;
+			case Data.LONG:
+				packer.packInt(LONG);
+				packer.packLong(bits);
+				break;
+			case Data.FLOAT:
+				packer.packInt(FLOAT);
+				packer.packFloat(Float.intBitsToFloat((int) bits));
+				break;
+			case Data.DOUBLE:
+				packer.packInt(DOUBLE);
+				packer.packDouble(Double.longBitsToDouble(bits));
+				break;
+			case Data.VECTOR3D:
+				packer.packInt(VECTOR3D);
+				packer.packDouble(Double.longBitsToDouble(bits));
+				packer.packDouble(data.unboxedY[slot]);
+				packer.packDouble(data.unboxedZ[slot]);
+				break;
+		}
+	}
+
+	private void writeReference(Map<String, Integer> table, String value) throws IOException {
+		if (value == null) {
+			packer.packInt(NO_REFERENCE);
+			return;
+		}
+
+		Integer id = table.get(value);
+		if (id != null) {
+			packer.packInt(id);
+		} else {
+			table.put(value, table.size());
+			packer.packInt(NEW_REFERENCE);
+			packer.packString(value);
+		}
+	}
+
+	private void writeValue(Object value) throws IOException {
+		if (value instanceof Boolean) {
+			packer.packInt(BOOLEAN);
+			packer.packBoolean((Boolean) value);
+		} else if (value instanceof Byte) {
+			packer.packInt(BYTE);
+			packer.packByte((Byte) value);
+		} else if (value instanceof Short) {
+			packer.packInt(SHORT);
+			packer.packShort((Short) value);
+		} else if (value instanceof Integer) {
+			packer.packInt(INTEGER);
+			packer.packInt((Integer) value);
+		} else if (value instanceof Long) {
+			packer.packInt(LONG);
+			packer.packLong((Long) value);
+		} else if (value instanceof Character) {
+			packer.packInt(CHARACTER);
+			packer.packInt((Character) value);
+		} else if (value instanceof Float) {
+			packer.packInt(FLOAT);
+			packer.packFloat((Float) value);
+		} else if (value instanceof Double) {
+			packer.packInt(DOUBLE);
+			packer.packDouble((Double) value);
+		} else if (value instanceof String) {
+			packer.packInt(STRING);
+			packer.packString((String) value);
+		} else if (value instanceof Data) {
+			packer.packInt(DATA);
+			write((Data) value);
+		} else if (value instanceof Collection) {
+			packer.packInt(value instanceof Set ? SET : LIST);
+			packer.packArrayHeader(((Collection<?>) value).size());
+			for (Object element : (Collection<?>) value) {
+				writeValue(element);
+			}
+		} else {
+			throw new DataException("Attempt to write an invalid object: %s", value);
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		packer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		packer.close();
+	}
+}
@@ -1,6 +1,6 @@
 package nova.core.retention;
 
-import nova.core.util.ReflectionUtil;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 
 /**
  * Classes with this interface declare ability to store and load itself.
@@ -17,48 +17,68 @@ public interface Storable {
 	 * @param data The data object to put values in.
 	 */
 	default void save(Data data) {
-		ReflectionUtil.forEachRecursiveAnnotatedField(Store.class, getClass(), (field, annotation) -> {
+		for (StoreSchema.Entry entry : StoreSchema.of(getClass()).entries) {
 			try {
-				field.setAccessible(true);
-				String name = annotation.key();
-				if (name.isEmpty()) {
-					name = field.getName();
+				switch (entry.type) {
+					case StoreSchema.BOOLEAN:
+						data.putBoolean(entry.key, entry.accessor.getBoolean(this));
+						break;
+					case StoreSchema.INTEGER:
+						data.putInt(entry.key, entry.accessor.getInt(this));
+						break;
+					case StoreSchema.LONG:
+						data.putLong(entry.key, entry.accessor.getLong(this));
+						break;
+					case StoreSchema.FLOAT:
+						data.putFloat(entry.key, entry.accessor.getFloat(this));
+						break;
+					case StoreSchema.DOUBLE:
+						data.putDouble(entry.key, entry.accessor.getDouble(this));
+						break;
+					default:
+						Object value = entry.accessor.get(this);
+						if (entry.type == StoreSchema.VECTOR3D && value != null) {
+							data.putVector3D(entry.key, (Vector3D) value);
+						} else {
+							data.put(entry.key, value);
+						}
 				}
-				data.put(name, field.get(this));
-				field.setAccessible(false);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
-		});
+		}
 	}
 
 	default void load(Data data) {
-		ReflectionUtil.forEachRecursiveAnnotatedField(Store.class, getClass(), (field, annotation) -> {
-			String name = annotation.key();
-			if (name.isEmpty()) {
-				name = field.getName();
-			}
-			if (data.containsKey(name)) {
+		for (StoreSchema.Entry entry : StoreSchema.of(getClass()).entries) {
+			if (data.containsKey(entry.key)) {
 				try {
-					field.setAccessible(true);
-					Class<?> type = field.getType();
-					Object fieldValue = field.get(this);
-					Object value = data.get(name);
-					if (Storable.class.isAssignableFrom(type) || value instanceof Data) {
-						if (fieldValue instanceof Storable && value instanceof Data) {
-							//We already have an instance. Don't need to create the object.
-							((Storable) fieldValue).load((Data) value);
-						} else {
-							field.set(this, Data.unserialize((Data) value));
-						}
-					} else {
-						field.set(this, value);
+					switch (entry.type) {
+						case StoreSchema.BOOLEAN:
+							entry.accessor.setBoolean(this, data.getBoolean(entry.key));
+							break;
+						case StoreSchema.INTEGER:
+							entry.accessor.setInt(this, data.getInt(entry.key));
+							break;
+						case StoreSchema.LONG:
+							entry.accessor.setLong(this, data.getLong(entry.key));
+							break;
+						case StoreSchema.FLOAT:
+							entry.accessor.setFloat(this, data.getFloat(entry.key));
+							break;
+						case StoreSchema.DOUBLE:
+							entry.accessor.setDouble(this, data.getDouble(entry.key));
+							break;
+						case StoreSchema.VECTOR3D:
+							entry.accessor.set(this, data.getVector3D(entry.key));
+							break;
+						default:
+							StoreSchema.loadObject(this, data, entry);
 					}
-					field.setAccessible(false);
 				} catch (Exception e) {
 					e.printStackTrace();
 				}
 			}
-		});
+		}
 	}
 }
@@ -0,0 +1,100 @@
+package nova.core.retention;
+
+import nova.core.util.FieldAccessor;
+import nova.core.util.ReflectionUtil;
+import nova.core.util.ReflectionUtil.AnnotatedField;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@link Store} fields of a class, resolved once per class and bound to
+ * {@link FieldAccessor FieldAccessors}. Used by the default implementations
+ * of {@link Storable}, which keep fields of the types listed below unboxed.
+ */
+final class StoreSchema {
+
+	private static final ClassValue<StoreSchema> SCHEMAS = new ClassValue<StoreSchema>() {
+		@Override
+		protected StoreSchema computeValue(Class<?> type) {
+			return new StoreSchema(type);
+		}
+	};
+
+	final Entry[] entries;
+
+	private StoreSchema(Class<?> clazz) {
+		List<Entry> entries = new ArrayList<>();
+		for (AnnotatedField<Store> field : ReflectionUtil.getRecursiveAnnotatedFields(Store.class, clazz)) {
+			String name = field.annotation.key();
+			if (name.isEmpty()) {
+				name = field.field.getName();
+			}
+			entries.add(new Entry(name, field.accessor()));
+		}
+		this.entries = entries.toArray(new Entry[entries.size()]);
+	}
+
+	static StoreSchema of(Class<?> clazz) {
+		return SCHEMAS.get(clazz);
+	}
+
+	/**
+	 * Loads a field that is not stored unboxed.
+	 */
+	static void loadObject(Storable storable, Data data, Entry entry) {
+		Object fieldValue = entry.accessor.get(storable);
+		Object value = data.get(entry.key);
+		if (entry.storableType || value instanceof Data) {
+			if (fieldValue instanceof Storable && value instanceof Data) {
+				//We already have an instance. Don't need to create the object.
+				((Storable) fieldValue).load((Data) value);
+			} else {
+				entry.accessor.set(storable, Data.unserialize((Data) value));
+			}
+		} else {
+			entry.accessor.set(storable, value);
+		}
+	}
+
+	//Field types that are stored unboxed
+	static final int OBJECT = 0;
+	static final int BOOLEAN = 1;
+	static final int INTEGER = 2;
+	static final int LONG = 3;
+	static final int FLOAT = 4;
+	static final int DOUBLE = 5;
+	static final int VECTOR3D = 6;
+
+	static final class Entry {
+		final String key;
+		final FieldAccessor accessor;
+		final boolean storableType;
+		final int type;
+
+		Entry(String key, FieldAccessor accessor) {
+			this.key = key;
+			this.accessor = accessor;
+			this.storableType = Storable.class.isAssignableFrom(accessor.type());
+			this.type = typeOf(accessor.type());
+		}
+
+		private static int typeOf(Class<?> type) {
+			if (type == boolean.class) {
+				return BOOLEAN;
+			} else if (type == int.class) {
+				return INTEGER;
+			} else if (type == long.class) {
+				return LONG;
+			} else if (type == float.class) {
+				return FLOAT;
+			} else if (type == double.class) {
+				return DOUBLE;
+			} else if (type == Vector3D.class) {
+				return VECTOR3D;
+			}
+			return OBJECT;
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package nova.core.util;
+
+import nova.core.util.ReflectionUtil.ReflectionException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Fast access to a single field, bound once to method handles instead of
+ * going through {@link Field#get(Object)} and {@link Field#set(Object, Object)}
+ * with their access checks on every call. Primitive fields can also be
+ * accessed without boxing through the typed getters and setters, which only
+ * work for fields of exactly that type. Static fields ignore the instance.
+ */
+public final class FieldAccessor {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	public final Field field;
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+	//Handles typed (Object)T and (Object, T)void, used by the unboxed accessors of primitive fields
+	private final MethodHandle typedGetter;
+	private final MethodHandle typedSetter;
+
+	public FieldAccessor(Field field) {
+		this.field = field;
+		boolean accessible = field.isAccessible();
+		try {
+			field.setAccessible(true);
+			MethodHandle rawGetter = LOOKUP.unreflectGetter(field);
+			MethodHandle rawSetter = unreflectSetter(field);
+			if (Modifier.isStatic(field.getModifiers())) {
+				//Take the instance like the handles of instance fields do, and ignore it
+				rawGetter = MethodHandles.dropArguments(rawGetter, 0, Object.class);
+				rawSetter = rawSetter != null ? MethodHandles.dropArguments(rawSetter, 0, Object.class) : null;
+			}
+			getter = rawGetter.asType(MethodType.methodType(Object.class, Object.class));
+			setter = rawSetter != null ? rawSetter.asType(MethodType.methodType(void.class, Object.class, Object.class)) : null;
+			typedGetter = rawGetter.asType(MethodType.methodType(field.getType(), Object.class));
+			typedSetter = rawSetter != null ? rawSetter.asType(MethodType.methodType(void.class, Object.class, field.getType())) : null;
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException(e);
+		} finally {
+			field.setAccessible(accessible);
+		}
+	}
+
+	private static MethodHandle unreflectSetter(Field field) {
+		try {
+			return LOOKUP.unreflectSetter(field);
+		} catch (IllegalAccessException e) {
+			// Final fields can only be read.
+			return null;
+		}
+	}
+
+	public Class<?> type() {
+		return field.getType();
+	}
+
+	public Object get(Object instance) {
+		try {
+			return getter.invokeExact(instance);
+		} catch (Throwable t) {
+			throw new ReflectionException(t);
+		}
+	}
+
+	public void set(Object instance, Object value) {
+		if (setter == null) {
+			throw new ReflectionException("Field %s can not be written to.", field);
+		}
+
+		try {
+			setter.invokeExact(instance, value);
+		} catch (Throwable t) {
+			throw new ReflectionException(t);
+		}
+	}
+
+	public boolean getBoolean(Object instance) {
+		try {
+			return (boolean) typedGetter.invokeExact(instance);
+		} catch (Throwable t) {
+			throw new ReflectionException(t);
+		}
+	}
+
+	public int getInt(Object instance) {
+		try {
+			return (int) typedGetter.invokeExact(instance);
+		} catch (Throwable t) {
+			throw new ReflectionException(t);
+		}
+	}
+
+	public long getLong(Object instance) {
+		try {
+			return (long) typedGetter.invokeExact(instance);
+		} catch (Throwable t) {
+			throw new ReflectionException(t);
+		}
+	}
+
+	public float getFloat(Object instance) {
+		try {
+			return (float) typedGetter.invokeExact(instance);
+		} catch (Throwable t) {
+			throw new ReflectionException(t);
+		}
+	}
+
+	public double getDouble(Object instance) {
+		try {
+			return (double) typedGetter.invokeExact(instance);
+		} catch (Throwable t) {
+			throw new ReflectionException(t);
+		}
+	}
+
+	public void setBoolean(Object instance, boolean value) {
+		try {
+			writableTypedSetter().invokeExact(instance, value);
+		} catch (Throwable t) {
+			throw new ReflectionException(t);
+		}
+	}
+
+	public void setInt(Object instance, int value) {
+		try {
+			writableTypedSetter().invokeExact(instance, value);
+		} catch (Throwable t) {
+			throw new ReflectionException(t);
+		}
+	}
+
+	public void setLong(Object instance, long value) {
+		try {
+			writableTypedSetter().invokeExact(instance, value);
+		} catch (Throwable t) {
+			throw new ReflectionException(t);
+		}
+	}
+
+	public void setFloat(Object instance, float value) {
+		try {
+			writableTypedSetter().invokeExact(instance, value);
+		} catch (Throwable t) {
+			throw new ReflectionException(t);
+		}
+	}
+
+	public void setDouble(Object instance, double value) {
+		try {
+			writableTypedSetter().invokeExact(instance, value);
+		} catch (Throwable t) {
+			throw new ReflectionException(t);
+		}
+	}
+
+	private MethodHandle writableTypedSetter() {
+		if (typedSetter == null) {
+			throw new ReflectionException("Field %s can not be written to.", field);
+		}
+		return typedSetter;
+	}
+}
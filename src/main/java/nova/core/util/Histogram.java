@@ -0,0 +1,146 @@
+package nova.core.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A histogram of non-negative long values, such as durations in
+ * nanoseconds. Values are counted in log-linear buckets: every power of two
+ * is split into 32 buckets, so percentiles are accurate to about 3%. The
+ * buckets of a power of two are allocated when its first value is recorded,
+ * so a histogram only takes memory for the range of its values, and
+ * recording values in that range never allocates.
+ *
+ * Recording is thread safe. Reading while values are recorded gives a
+ * consistent enough view for monitoring, but not an exact snapshot.
+ */
+public class Histogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	/**
+	 * The counts of the buckets, in chunks of the {@link #SUB_BUCKETS} buckets of a power of two.
+	 */
+	private final AtomicReferenceArray<AtomicLongArray> counts = new AtomicReferenceArray<>(BUCKETS / SUB_BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	static int bucket(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * @return The largest value counted in a bucket
+	 */
+	static long highestValue(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	/**
+	 * Records a value. Negative values are recorded as zero.
+	 *
+	 * @param value The value
+	 */
+	public void record(long value) {
+		value = Math.max(0, value);
+		int bucket = bucket(value);
+		AtomicLongArray chunk = counts.get(bucket >>> SUB_BUCKET_BITS);
+		if (chunk == null) {
+			counts.compareAndSet(bucket >>> SUB_BUCKET_BITS, null, new AtomicLongArray(SUB_BUCKETS));
+			chunk = counts.get(bucket >>> SUB_BUCKET_BITS);
+		}
+		chunk.incrementAndGet(bucket & (SUB_BUCKETS - 1));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+		long current;
+		while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+		}
+	}
+
+	/**
+	 * @return The number of recorded values
+	 */
+	public long count() {
+		return count.get();
+	}
+
+	/**
+	 * @return The largest recorded value
+	 */
+	public long max() {
+		return max.get();
+	}
+
+	/**
+	 * @return The mean of all recorded values, or 0 if there are none
+	 */
+	public double mean() {
+		long n = count.get();
+		return n == 0 ? 0 : (double) sum.get() / n;
+	}
+
+	/**
+	 * Gets the value below which a percentage of the recorded values fall.
+	 *
+	 * @param percentile The percentile, between 0 and 100
+	 * @return The highest value of the bucket that contains the percentile, or 0 if there are no values
+	 */
+	public long percentile(double percentile) {
+		long n = count.get();
+		if (n == 0) {
+			return 0;
+		}
+
+		long target = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+		long seen = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			AtomicLongArray chunk = counts.get(i);
+			if (chunk == null) {
+				continue;
+			}
+			for (int j = 0; j < SUB_BUCKETS; j++) {
+				seen += chunk.get(j);
+				if (seen >= target) {
+					return Math.min(highestValue(i * SUB_BUCKETS + j), max.get());
+				}
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * Removes all recorded values.
+	 */
+	public void reset() {
+		for (int i = 0; i < counts.length(); i++) {
+			AtomicLongArray chunk = counts.get(i);
+			if (chunk != null) {
+				for (int j = 0; j < SUB_BUCKETS; j++) {
+					chunk.set(j, 0);
+				}
+			}
+		}
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%d mean=%.1f p50=%d p99=%d max=%d", count(), mean(), percentile(50), percentile(99), max());
+	}
+}
@@ -2,17 +2,16 @@ package nova.core.util;
 
 import nova.internal.core.Game;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * A simple stop watch profiler.
  * @author Calclavia
+ * @deprecated Use {@link SectionProfiler} to profile code that runs more than once.
  */
+@Deprecated
 public class Profiler {
 
 	public final String name;
-	private final List<Long> lapped = new ArrayList<>();
+	private final Histogram lapped = new Histogram();
 	private long time;
 
 	public Profiler(String name) {
@@ -20,30 +19,47 @@ public class Profiler {
 	}
 
 	public Profiler start() {
-		time = System.currentTimeMillis();
+		time = System.nanoTime();
 		return this;
 	}
 
 	public double end() {
 		Game.logger().info(toString());
-		return elapsed() / 1000d;
+		return elapsedNanos() / 1_000_000_000d;
 	}
 
+	/**
+	 * @return The elapsed time in milliseconds
+	 */
 	public long elapsed() {
-		return System.currentTimeMillis() - time;
+		return elapsedNanos() / 1_000_000;
+	}
+
+	public long elapsedNanos() {
+		return System.nanoTime() - time;
 	}
 
+	/**
+	 * @return The average lap time in seconds
+	 */
 	public double average() {
-		return lapped.stream().mapToDouble(value -> value / 1000d).sum() / lapped.size();
+		return lapped.mean() / 1_000_000_000d;
+	}
+
+	/**
+	 * @return The lap times in nanoseconds
+	 */
+	public Histogram laps() {
+		return lapped;
 	}
 
 	public Profiler lap() {
-		lapped.add(elapsed());
+		lapped.record(elapsedNanos());
 		return start();
 	}
 
 	@Override
 	public String toString() {
-		return name + " took " + (elapsed() / 1000d) + " seconds";
+		return name + " took " + (elapsedNanos() / 1_000_000_000d) + " seconds";
 	}
 }
@@ -6,19 +6,27 @@ import nova.core.component.misc.Collider;
 import nova.core.component.transform.WorldTransform;
 import nova.core.entity.Entity;
 import nova.core.entity.component.Living;
+import nova.core.util.math.IntersectionUtil;
 import nova.core.util.math.Vector3DUtil;
 import nova.core.util.shape.Cuboid;
+import nova.core.util.shape.MutableCuboid;
 import nova.core.world.World;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Ray tracing for cuboids.
@@ -67,20 +75,15 @@ public class RayTracer {
 	}
 
 	/**
-	 * Check all blocks that are in a line
+	 * Check all blocks that are in a line. The blocks are visited lazily,
+	 * one cell at a time along the ray, so a short-circuiting operation like
+	 * {@link Stream#findFirst()} stops at the first hit.
+	 *
+	 * Colliders are expected to lie within the cell of their block.
 	 * @return The blocks ray traced in the order from closest to furthest.
 	 */
 	public Stream<RayTraceBlockResult> rayTraceBlocks(World world) {
-		//All relevant blocks
-		return rayTraceBlocks(
-			IntStream.range(0, (int) distance + 1)
-				.mapToObj(i -> ray.origin.add(ray.dir.scalarMultiply(i)))
-				.flatMap(vec -> Arrays.stream(Direction.DIRECTIONS).map(direction -> Vector3DUtil.floor(vec.add(direction.toVector())))) //Cover a larger area to be safe
-				.distinct()
-				.map(world::getBlock)
-				.filter(Optional::isPresent)
-				.map(Optional::get)
-		);
+		return StreamSupport.stream(new BlockTraversal(world), false);
 	}
 
 	/**
@@ -101,12 +104,11 @@ public class RayTracer {
 	}
 
 	public Stream<RayTraceEntityResult> rayTraceEntities(World world) {
-		//TODO: Consider smaller check space
-		return rayTraceEntities(
-			world.getEntities(Cuboid.ZERO.expand(distance).add(ray.origin))
-				.stream()
-				.filter(entity -> entity.has(Collider.class))
-		);
+		//Worlds that do not fill the entity tree are searched in a cube around the ray
+		Collection<Entity> entities = world.entityTree().isEmpty()
+			? world.getEntities(Cuboid.ZERO.expand(distance).add(ray.origin))
+			: world.entityTree().rayTrace(ray, distance);
+		return rayTraceEntities(entities.stream());
 	}
 
 	public Stream<RayTraceEntityResult> rayTraceEntities(Stream<Entity> entityStream) {
@@ -118,15 +120,21 @@ public class RayTracer {
 	}
 
 	public <R extends RayTraceResult> Stream<R> rayTraceCollider(ComponentProvider colliderProvider, BiFunction<Vector3D, Cuboid, R> resultMapper) {
-		return
-			colliderProvider.get(Collider.class)
-				.occlusionBoxes
-				.apply(Optional.empty())
-				.stream()
-				.map(cuboid -> cuboid.add((Vector3D) colliderProvider.get(WorldTransform.class).position()))
-				.map(cuboid -> rayTrace(cuboid, resultMapper))
-				.filter(Optional::isPresent)
-				.map(Optional::get);
+		Set<Cuboid> boxes = colliderProvider.get(Collider.class).occlusionBoxes.apply(Optional.empty());
+		Vector3D position = (Vector3D) colliderProvider.get(WorldTransform.class).position();
+		//The boxes are tested at the position of the collider, and only hits are moved there as a new cuboid
+		MutableCuboid box = new MutableCuboid();
+		List<R> results = null;
+		for (Cuboid cuboid : boxes) {
+			double t = box.set(cuboid).offset(position).rayTrace(ray, 0, distance);
+			if (!Double.isNaN(t)) {
+				if (results == null) {
+					results = new ArrayList<>(boxes.size());
+				}
+				results.add(resultMapper.apply(pointAt(t), box.toCuboid()));
+			}
+		}
+		return results == null ? Stream.empty() : results.stream();
 	}
 
 	/**
@@ -159,13 +167,7 @@ public class RayTracer {
 	/**
 	 * Calculates intersection with the given ray between a certain distance
 	 * interval.
-	 * <p>
-	 * Ray-box intersection is using IEEE numerical properties to ensure the
-	 * test is both robust and efficient, as described in:
-	 * <br>
-	 * <code>Amy Williams, Steve Barrus, R. Keith Morley, and Peter Shirley: "An
-	 * Efficient and Robust Ray-Box Intersection Algorithm" Journal of graphics
-	 * tools, 10(1):49-54, 2005</code>
+	 * @see IntersectionUtil#rayBox
 	 * @param cuboid The cuboid to trace
 	 * @param minDist The minimum distance
 	 * @param maxDist The maximum distance
@@ -173,57 +175,127 @@ public class RayTracer {
 	 * returned) or null if no intersection
 	 */
 	public Optional<Vector3D> rayTrace(Cuboid cuboid, double minDist, double maxDist) {
-		Vector3D bbox;
-
-		double tMin;
-		double tMax;
-
-		bbox = ray.signDirX ? cuboid.max : cuboid.min;
-		tMin = (bbox.getX() - ray.origin.getX()) * ray.invDir.getX();
-		bbox = ray.signDirX ? cuboid.min : cuboid.max;
-		tMax = (bbox.getX() - ray.origin.getX()) * ray.invDir.getX();
+		double t = IntersectionUtil.rayBox(
+			ray.origin.getX(), ray.origin.getY(), ray.origin.getZ(),
+			ray.invDir.getX(), ray.invDir.getY(), ray.invDir.getZ(),
+			cuboid.min.getX(), cuboid.min.getY(), cuboid.min.getZ(),
+			cuboid.max.getX(), cuboid.max.getY(), cuboid.max.getZ(),
+			minDist, maxDist
+		);
+		return Double.isNaN(t) ? Optional.empty() : Optional.of(pointAt(t));
+	}
 
-		//Y
-		bbox = ray.signDirY ? cuboid.max : cuboid.min;
-		double tyMin = (bbox.getY() - ray.origin.getY()) * ray.invDir.getY();
-		bbox = ray.signDirY ? cuboid.min : cuboid.max;
-		double tyMax = (bbox.getY() - ray.origin.getY()) * ray.invDir.getY();
+	/**
+	 * @param t The distance along the ray
+	 * @return The point at the distance along the ray
+	 */
+	private Vector3D pointAt(double t) {
+		return new Vector3D(
+			ray.origin.getX() + ray.dir.getX() * t,
+			ray.origin.getY() + ray.dir.getY() * t,
+			ray.origin.getZ() + ray.dir.getZ() * t
+		);
+	}
 
-		//Check with the current tMin and tMax to see if the clipping is out of bounds
-		if ((tMin > tyMax) || (tyMin > tMax)) {
-			return Optional.empty();
+	/**
+	 * Walks the cells of the blocks the ray passes through, in order, as described in:
+	 * <br>
+	 * <code>John Amanatides and Andrew Woo: "A Fast Voxel Traversal Algorithm
+	 * for Ray Tracing" Eurographics '87</code>
+	 */
+	private class BlockTraversal extends Spliterators.AbstractSpliterator<RayTraceBlockResult> {
+		private final World world;
+
+		//The current cell
+		private int x;
+		private int y;
+		private int z;
+		private final int stepX;
+		private final int stepY;
+		private final int stepZ;
+		//The distance along the ray at which the next cell on each axis is entered
+		private double tMaxX;
+		private double tMaxY;
+		private double tMaxZ;
+		//The distance along the ray between two cells on each axis
+		private final double tDeltaX;
+		private final double tDeltaY;
+		private final double tDeltaZ;
+		//The distance along the ray at which the current cell is entered
+		private double t;
+
+		private Iterator<RayTraceBlockResult> hits = Collections.emptyIterator();
+
+		private BlockTraversal(World world) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.world = world;
+
+			double originX = ray.origin.getX();
+			double originY = ray.origin.getY();
+			double originZ = ray.origin.getZ();
+			x = (int) Math.floor(originX);
+			y = (int) Math.floor(originY);
+			z = (int) Math.floor(originZ);
+
+			stepX = ray.dir.getX() > 0 ? 1 : ray.dir.getX() < 0 ? -1 : 0;
+			stepY = ray.dir.getY() > 0 ? 1 : ray.dir.getY() < 0 ? -1 : 0;
+			stepZ = ray.dir.getZ() > 0 ? 1 : ray.dir.getZ() < 0 ? -1 : 0;
+
+			tDeltaX = stepX != 0 ? Math.abs(ray.invDir.getX()) : Double.POSITIVE_INFINITY;
+			tDeltaY = stepY != 0 ? Math.abs(ray.invDir.getY()) : Double.POSITIVE_INFINITY;
+			tDeltaZ = stepZ != 0 ? Math.abs(ray.invDir.getZ()) : Double.POSITIVE_INFINITY;
+
+			tMaxX = stepX > 0 ? (x + 1 - originX) * tDeltaX : stepX < 0 ? (originX - x) * tDeltaX : Double.POSITIVE_INFINITY;
+			tMaxY = stepY > 0 ? (y + 1 - originY) * tDeltaY : stepY < 0 ? (originY - y) * tDeltaY : Double.POSITIVE_INFINITY;
+			tMaxZ = stepZ > 0 ? (z + 1 - originZ) * tDeltaZ : stepZ < 0 ? (originZ - z) * tDeltaZ : Double.POSITIVE_INFINITY;
 		}
 
-		//Reset tMin and tMax
-		if (tyMin > tMin) {
-			tMin = tyMin;
-		}
-		if (tyMax < tMax) {
-			tMax = tyMax;
-		}
-		bbox = ray.signDirZ ? cuboid.max : cuboid.min;
-		double tzMin = (bbox.getZ() - ray.origin.getZ()) * ray.invDir.getZ();
-		bbox = ray.signDirZ ? cuboid.min : cuboid.max;
-		double tzMax = (bbox.getZ() - ray.origin.getZ()) * ray.invDir.getZ();
-
-		//Check with the current tMin and tMax to see if the clipping is out of bounds
-		if ((tMin > tzMax) || (tzMin > tMax)) {
-			return Optional.empty();
+		@Override
+		public boolean tryAdvance(Consumer<? super RayTraceBlockResult> action) {
+			while (!hits.hasNext()) {
+				if (t > distance) {
+					return false;
+				}
+				visit();
+				step();
+			}
+			action.accept(hits.next());
+			return true;
 		}
 
-		//Reset tMin and tMax
-		if (tzMin > tMin) {
-			tMin = tzMin;
-		}
-		if (tzMax < tMax) {
-			tMax = tzMax;
+		private void visit() {
+			Optional<Block> opBlock = world.getBlockWith(x, y, z, Collider.class);
+			if (opBlock.isPresent()) {
+				Block block = opBlock.get();
+				hits = rayTraceCollider(block, (pos, cuboid) -> new RayTraceBlockResult(pos, ray.origin.distance(pos), cuboid.sideOf(pos), cuboid, block))
+					.sorted()
+					.iterator();
+			}
 		}
 
-		if ((tMin < maxDist) && (tMax > minDist)) {
-			return Optional.of(ray.origin.add(ray.dir.scalarMultiply(tMin)));
+		private void step() {
+			if (tMaxX < tMaxY) {
+				if (tMaxX < tMaxZ) {
+					x += stepX;
+					t = tMaxX;
+					tMaxX += tDeltaX;
+				} else {
+					z += stepZ;
+					t = tMaxZ;
+					tMaxZ += tDeltaZ;
+				}
+			} else {
+				if (tMaxY < tMaxZ) {
+					y += stepY;
+					t = tMaxY;
+					tMaxY += tDeltaY;
+				} else {
+					z += stepZ;
+					t = tMaxZ;
+					tMaxZ += tDeltaZ;
+				}
+			}
 		}
-
-		return Optional.empty();
 	}
 
 	public static class RayTraceResult implements Comparable<RayTraceResult> {
@@ -18,6 +18,23 @@ public class ReflectionUtil {
 	 */
 	private static final List<Class<?>> PRIMITIVE_WIDENING = Arrays.asList(Byte.class, Short.class, Character.class, Integer.class, Long.class, Float.class, Double.class);
 
+	/**
+	 * Annotation type -&gt; class -&gt; annotated fields of that class and its
+	 * super classes. Both levels are {@link ClassValue ClassValues}, so entries
+	 * are released together with the class loader that defined the class.
+	 */
+	private static final ClassValue<ClassValue<List<AnnotatedField<?>>>> ANNOTATED_FIELDS = new ClassValue<ClassValue<List<AnnotatedField<?>>>>() {
+		@Override
+		protected ClassValue<List<AnnotatedField<?>>> computeValue(Class<?> annotation) {
+			return new ClassValue<List<AnnotatedField<?>>>() {
+				@Override
+				protected List<AnnotatedField<?>> computeValue(Class<?> clazz) {
+					return resolveAnnotatedFields(annotation.asSubclass(Annotation.class), clazz);
+				}
+			};
+		}
+	};
+
 	private ReflectionUtil() {
 	}
 
@@ -292,16 +309,69 @@ public class ReflectionUtil {
 		return fields;
 	}
 
-	// TODO: Cache this?
 	public static <T extends Annotation> void forEachRecursiveAnnotatedField(Class<T> annotation, Class<?> clazz, BiConsumer<Field, T> action) {
-		Arrays.stream(clazz.getDeclaredFields())
-			.filter(f -> f.isAnnotationPresent(annotation) && !f.isSynthetic())
-			.forEachOrdered(f -> action.accept(f, f.getAnnotation(annotation)));
+		for (AnnotatedField<T> field : getRecursiveAnnotatedFields(annotation, clazz)) {
+			action.accept(field.field, field.annotation);
+		}
+	}
 
-		Class<?> superClass = clazz.getSuperclass();
+	/**
+	 * Gets all the annotated fields of this class, including all the parents
+	 * classes in the order of hierarchy. The result is cached per annotation
+	 * and class, and all the fields are already made accessible.
+	 *
+	 * @param annotation Your annotation class.
+	 * @param clazz Class to search through.
+	 * @return An immutable list of annotated fields from the most sub class to
+	 *         the most super class.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends Annotation> List<AnnotatedField<T>> getRecursiveAnnotatedFields(Class<T> annotation, Class<?> clazz) {
+		return (List<AnnotatedField<T>>) (List) ANNOTATED_FIELDS.get(annotation).get(clazz);
+	}
+
+	private static List<AnnotatedField<?>> resolveAnnotatedFields(Class<? extends Annotation> annotation, Class<?> clazz) {
+		List<AnnotatedField<?>> fields = new ArrayList<>();
+		for (Field field : clazz.getDeclaredFields()) {
+			if (field.isAnnotationPresent(annotation) && !field.isSynthetic()) {
+				field.setAccessible(true);
+				fields.add(new AnnotatedField<>(field, field.getAnnotation(annotation)));
+			}
+		}
 
+		Class<?> superClass = clazz.getSuperclass();
 		if (superClass != null) {
-			forEachRecursiveAnnotatedField(annotation, superClass, action);
+			fields.addAll(ANNOTATED_FIELDS.get(annotation).get(superClass));
+		}
+		return Collections.unmodifiableList(fields);
+	}
+
+	/**
+	 * A field together with its annotation, as cached by
+	 * {@link #getRecursiveAnnotatedFields(Class, Class)}.
+	 *
+	 * @param <T> Annotation type
+	 */
+	public static final class AnnotatedField<T extends Annotation> {
+		public final Field field;
+		public final T annotation;
+		private FieldAccessor accessor;
+
+		AnnotatedField(Field field, T annotation) {
+			this.field = field;
+			this.annotation = annotation;
+		}
+
+		/**
+		 * @return A fast accessor for the field, created on first use.
+		 */
+		public FieldAccessor accessor() {
+			FieldAccessor accessor = this.accessor;
+			if (accessor == null) {
+				// Racing threads may both create one, which is harmless.
+				this.accessor = accessor = new FieldAccessor(field);
+			}
+			return accessor;
 		}
 	}
 
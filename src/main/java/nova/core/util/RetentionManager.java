@@ -1,8 +1,14 @@
 package nova.core.util;
 
+import nova.core.retention.Data;
+import nova.core.retention.DataReader;
+import nova.core.retention.DataWriter;
 import nova.core.retention.Storable;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -31,6 +37,36 @@ public abstract class RetentionManager {
 	 */
 	public abstract void load(String filename, Storable storable);
 
+	/**
+	 * Writes a storable to a stream in the binary format of {@link DataWriter}.
+	 * Implementations of {@link #save(String, Storable)} can use this to do
+	 * the actual writing.
+	 * @param out - The stream to write to.
+	 * @param storable - The storable object instance.
+	 * @throws IOException If the stream fails
+	 */
+	protected void write(OutputStream out, Storable storable) throws IOException {
+		Data data = new Data();
+		storable.save(data);
+		try (DataWriter writer = new DataWriter(out)) {
+			writer.write(data);
+		}
+	}
+
+	/**
+	 * Reads a storable from a stream written by {@link #write(OutputStream, Storable)}.
+	 * Implementations of {@link #load(String, Storable)} can use this to do
+	 * the actual reading.
+	 * @param in - The stream to read from.
+	 * @param storable - The storable object instance.
+	 * @throws IOException If the stream fails
+	 */
+	protected void read(InputStream in, Storable storable) throws IOException {
+		try (DataReader reader = new DataReader(in)) {
+			storable.load(reader.read());
+		}
+	}
+
 	/**
 	 * Queues the save until the next game save event occurs.
 	 * @param filename - The file name to save the data as.
@@ -0,0 +1,298 @@
+package nova.core.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A hierarchical profiler that measures nested sections, such as
+ * "tick > updaters > com.example.BlockY". Every thread keeps its own
+ * stack of open sections, while the measured times are merged into one tree
+ * shared by all threads.
+ *
+ * Sections are opened with {@link #start(String)} and closed with
+ * {@link #end()}, preferably in a try/finally block. While the profiler is
+ * {@link Mode#OFF off}, both only read a field. In {@link Mode#SAMPLED sampled}
+ * mode only every n-th top level section of a thread is measured, including
+ * all its nested sections.
+ *
+ * The results can be read from the section tree or dumped in the collapsed
+ * stack format used by flame graph tools.
+ */
+public final class SectionProfiler {
+
+	public enum Mode {
+		OFF,
+		SAMPLED,
+		FULL
+	}
+
+	private static volatile Mode mode = Mode.OFF;
+	private static volatile int sampleRate = 10;
+	/**
+	 * Incremented whenever the mode changes, so threads drop sections that
+	 * were opened before the change.
+	 */
+	private static volatile int generation;
+	private static volatile Section root = new Section("root", null);
+
+	private static final ThreadLocal<SectionStack> stacks = ThreadLocal.withInitial(SectionStack::new);
+
+	private SectionProfiler() {
+	}
+
+	public static Mode getMode() {
+		return mode;
+	}
+
+	public static void setMode(Mode mode) {
+		SectionProfiler.generation++;
+		SectionProfiler.mode = mode;
+	}
+
+	/**
+	 * Sets how often top level sections are measured in sampled mode.
+	 *
+	 * @param sampleRate Measure one in this many top level sections
+	 */
+	public static void setSampleRate(int sampleRate) {
+		SectionProfiler.sampleRate = Math.max(1, sampleRate);
+	}
+
+	public static boolean isEnabled() {
+		return mode != Mode.OFF;
+	}
+
+	/**
+	 * Opens a section nested in the current section of this thread.
+	 *
+	 * @param name The name of the section
+	 */
+	public static void start(String name) {
+		if (mode == Mode.OFF) {
+			return;
+		}
+
+		SectionStack stack = stacks.get();
+		if (stack.generation != generation) {
+			stack.generation = generation;
+			stack.depth = 0;
+		}
+
+		Section parent;
+		if (stack.depth == 0) {
+			boolean sampled = mode == Mode.FULL || ++stack.samples % sampleRate == 0;
+			parent = sampled ? root : null;
+		} else {
+			parent = stack.sections[stack.depth - 1];
+		}
+		stack.push(parent != null ? parent.child(name) : null);
+	}
+
+	/**
+	 * Opens a section nested in a section of another thread, for work that is
+	 * split over several threads.
+	 *
+	 * @param parent The parent section, from {@link #current()}, or null if the parent is not measured
+	 * @param name The name of the section
+	 */
+	public static void start(Section parent, String name) {
+		if (mode == Mode.OFF) {
+			return;
+		}
+
+		SectionStack stack = stacks.get();
+		if (stack.generation != generation) {
+			stack.generation = generation;
+			stack.depth = 0;
+		}
+		stack.push(parent != null ? parent.child(name) : null);
+	}
+
+	/**
+	 * Closes the current section of this thread.
+	 */
+	public static void end() {
+		if (mode == Mode.OFF) {
+			return;
+		}
+
+		SectionStack stack = stacks.get();
+		if (stack.generation != generation || stack.depth == 0) {
+			return;
+		}
+
+		stack.depth--;
+		Section section = stack.sections[stack.depth];
+		if (section != null) {
+			section.record(System.nanoTime() - stack.starts[stack.depth]);
+		}
+	}
+
+	/**
+	 * @return The current section of this thread, or null if it is not measured
+	 */
+	public static Section current() {
+		if (mode == Mode.OFF) {
+			return null;
+		}
+
+		SectionStack stack = stacks.get();
+		if (stack.generation != generation || stack.depth == 0) {
+			return null;
+		}
+		return stack.sections[stack.depth - 1];
+	}
+
+	/**
+	 * @return The root of the section tree, which contains the top level sections
+	 */
+	public static Section root() {
+		return root;
+	}
+
+	/**
+	 * Removes all measurements.
+	 */
+	public static void reset() {
+		root = new Section("root", null);
+		generation++;
+	}
+
+	/**
+	 * Dumps the measured sections in the collapsed stack format, with one
+	 * line per section that contains the path of the section separated by
+	 * semicolons, followed by the time spent in the section itself in
+	 * microseconds.
+	 *
+	 * @return The collapsed stacks
+	 */
+	public static String dumpCollapsed() {
+		StringBuilder builder = new StringBuilder();
+		for (Section section : root.children()) {
+			dumpCollapsed(section, section.name, builder);
+		}
+		return builder.toString();
+	}
+
+	private static void dumpCollapsed(Section section, String path, StringBuilder builder) {
+		long self = section.selfTime() / 1000;
+		if (self > 0) {
+			builder.append(path).append(' ').append(self).append('\n');
+		}
+		for (Section child : section.children()) {
+			dumpCollapsed(child, path + ';' + child.name.replace(';', ':'), builder);
+		}
+	}
+
+	/**
+	 * A node in the section tree.
+	 */
+	public static final class Section {
+		public final String name;
+		public final Section parent;
+		private final Map<String, Section> children = new ConcurrentHashMap<>();
+		private final AtomicLong totalTime = new AtomicLong();
+		private volatile Histogram times;
+
+		private Section(String name, Section parent) {
+			this.name = name;
+			this.parent = parent;
+		}
+
+		private Section child(String name) {
+			Section child = children.get(name);
+			if (child == null) {
+				child = children.computeIfAbsent(name, key -> new Section(key, this));
+			}
+			return child;
+		}
+
+		private void record(long nanos) {
+			totalTime.addAndGet(nanos);
+			Histogram histogram = times;
+			if (histogram == null) {
+				synchronized (this) {
+					if (times == null) {
+						times = new Histogram();
+					}
+					histogram = times;
+				}
+			}
+			histogram.record(nanos);
+		}
+
+		public Collection<Section> children() {
+			return Collections.unmodifiableCollection(children.values());
+		}
+
+		/**
+		 * @return The total time spent in this section, in nanoseconds
+		 */
+		public long totalTime() {
+			return totalTime.get();
+		}
+
+		/**
+		 * @return The time spent in this section outside of its child sections, in nanoseconds
+		 */
+		public long selfTime() {
+			long self = totalTime.get();
+			for (Section child : children.values()) {
+				self -= child.totalTime();
+			}
+			return Math.max(0, self);
+		}
+
+		/**
+		 * @return The durations of this section, in nanoseconds
+		 */
+		public Histogram times() {
+			Histogram histogram = times;
+			return histogram != null ? histogram : new Histogram();
+		}
+
+		/**
+		 * @param path The names of the nested sections
+		 * @return The nested section, or null if it was never measured
+		 */
+		public Section get(String... path) {
+			Section section = this;
+			for (String name : path) {
+				section = section.children.get(name);
+				if (section == null) {
+					return null;
+				}
+			}
+			return section;
+		}
+
+		@Override
+		public String toString() {
+			return parent == null || parent.parent == null ? name : parent + " > " + name;
+		}
+	}
+
+	private static class SectionStack {
+		private Section[] sections = new Section[16];
+		private long[] starts = new long[16];
+		private int depth;
+		private int samples;
+		private int generation = SectionProfiler.generation;
+
+		private void push(Section section) {
+			if (depth == sections.length) {
+				sections = Arrays.copyOf(sections, depth * 2);
+				starts = Arrays.copyOf(starts, depth * 2);
+			}
+			sections[depth] = section;
+			if (section != null) {
+				starts[depth] = System.nanoTime();
+			}
+			depth++;
+		}
+	}
+}
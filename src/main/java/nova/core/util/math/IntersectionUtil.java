@@ -0,0 +1,82 @@
+package nova.core.util.math;
+
+/**
+ * Intersection tests of rays, points and axis aligned boxes on primitive
+ * coordinates, so hot loops can run them without creating vectors.
+ *
+ * Boxes are given by their minimum and maximum coordinates, and rays by
+ * their origin and the reciprocal of their direction.
+ */
+public class IntersectionUtil {
+
+	/**
+	 * Calculates the intersection of a ray with a box between a certain
+	 * distance interval.
+	 * <p>
+	 * Ray-box intersection is using IEEE numerical properties to ensure the
+	 * test is both robust and efficient, as described in:
+	 * <br>
+	 * <code>Amy Williams, Steve Barrus, R. Keith Morley, and Peter Shirley: "An
+	 * Efficient and Robust Ray-Box Intersection Algorithm" Journal of graphics
+	 * tools, 10(1):49-54, 2005</code>
+	 * @return The distance along the ray at which it enters the box, negative
+	 * if the origin is inside the box, or NaN if the ray misses the box
+	 */
+	public static double rayBox(double originX, double originY, double originZ,
+		double invDirX, double invDirY, double invDirZ,
+		double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+		double minDist, double maxDist) {
+
+		double tMin = ((invDirX < 0 ? maxX : minX) - originX) * invDirX;
+		double tMax = ((invDirX < 0 ? minX : maxX) - originX) * invDirX;
+
+		double tyMin = ((invDirY < 0 ? maxY : minY) - originY) * invDirY;
+		double tyMax = ((invDirY < 0 ? minY : maxY) - originY) * invDirY;
+		if (tMin > tyMax || tyMin > tMax) {
+			return Double.NaN;
+		}
+		if (tyMin > tMin) {
+			tMin = tyMin;
+		}
+		if (tyMax < tMax) {
+			tMax = tyMax;
+		}
+
+		double tzMin = ((invDirZ < 0 ? maxZ : minZ) - originZ) * invDirZ;
+		double tzMax = ((invDirZ < 0 ? minZ : maxZ) - originZ) * invDirZ;
+		if (tMin > tzMax || tzMin > tMax) {
+			return Double.NaN;
+		}
+		if (tzMin > tMin) {
+			tMin = tzMin;
+		}
+		if (tzMax < tMax) {
+			tMax = tzMax;
+		}
+
+		return tMin < maxDist && tMax > minDist ? tMin : Double.NaN;
+	}
+
+	/**
+	 * Checks if two boxes intersect or touch.
+	 * @return Result of the check
+	 */
+	public static boolean overlaps(double minX1, double minY1, double minZ1, double maxX1, double maxY1, double maxZ1,
+		double minX2, double minY2, double minZ2, double maxX2, double maxY2, double maxZ2) {
+		return minX1 <= maxX2 && maxX1 >= minX2
+			&& minY1 <= maxY2 && maxY1 >= minY2
+			&& minZ1 <= maxZ2 && maxZ1 >= minZ2;
+	}
+
+	/**
+	 * Calculates the squared distance between a point and a box.
+	 * @return The squared distance, 0 if the point is inside the box
+	 */
+	public static double distanceSq(double x, double y, double z,
+		double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+		double dx = Math.max(Math.max(minX - x, x - maxX), 0);
+		double dy = Math.max(Math.max(minY - y, y - maxY), 0);
+		double dz = Math.max(Math.max(minZ - z, z - maxZ), 0);
+		return dx * dx + dy * dy + dz * dz;
+	}
+}
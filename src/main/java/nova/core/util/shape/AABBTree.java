@@ -0,0 +1,642 @@
+package nova.core.util.shape;
+
+import nova.core.util.Ray;
+import nova.core.util.math.IntersectionUtil;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * A dynamic bounding volume hierarchy of axis aligned boxes, which finds the
+ * items in an area, along a ray or near a point in logarithmic time.
+ *
+ * Each item is stored in a leaf with its bounds enlarged by a margin, so
+ * items that move a little do not have to be reinserted. The tree is kept
+ * balanced by rotations when leaves are inserted or removed.
+ *
+ * The nodes are stored in primitive arrays indexed by node ID, and the ID of
+ * an item's leaf is returned when it is added. The tree is not thread-safe.
+ *
+ * @param <T> The type of the items
+ */
+public class AABBTree<T> {
+
+	private static final int NULL = -1;
+
+	private final double margin;
+
+	//The bounds of every node as minX, minY, minZ, maxX, maxY, maxZ. Enlarged by the margin for leaves.
+	private double[] bounds;
+	//The exact bounds of the items of leaves
+	private double[] itemBounds;
+	//The parent of a node, or the next free node for nodes in the free list
+	private int[] parent;
+	private int[] child1;
+	private int[] child2;
+	//The height of a node in the tree, 0 for leaves and -1 for free nodes
+	private int[] height;
+	private Object[] items;
+
+	private int root = NULL;
+	private int freeList = NULL;
+	private int size;
+
+	/**
+	 * @param margin The distance by which the bounds of items are enlarged in the tree
+	 */
+	public AABBTree(double margin) {
+		this.margin = margin;
+		allocate(16);
+	}
+
+	/**
+	 * @return The number of items in the tree
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return The height of the tree, 0 if it contains one item or none
+	 */
+	public int height() {
+		return root == NULL ? 0 : height[root];
+	}
+
+	/**
+	 * Adds an item to the tree.
+	 *
+	 * @param item The item
+	 * @param box The bounds of the item
+	 * @return The ID of the item in the tree
+	 */
+	public int add(T item, Cuboid box) {
+		return add(item, box.min.getX(), box.min.getY(), box.min.getZ(), box.max.getX(), box.max.getY(), box.max.getZ());
+	}
+
+	/**
+	 * Adds an item to the tree.
+	 *
+	 * @param item The item
+	 * @param box The bounds of the item
+	 * @return The ID of the item in the tree
+	 */
+	public int add(T item, MutableCuboid box) {
+		return add(item, box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ);
+	}
+
+	private int add(T item, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+		int leaf = allocateNode();
+		items[leaf] = item;
+		height[leaf] = 0;
+		setItemBounds(leaf, minX, minY, minZ, maxX, maxY, maxZ);
+		insertLeaf(leaf);
+		size++;
+		return leaf;
+	}
+
+	/**
+	 * Updates the bounds of an item. The item is only moved in the tree if
+	 * its new bounds leave the enlarged bounds of its leaf.
+	 *
+	 * @param id The ID of the item in the tree
+	 * @param box The new bounds of the item
+	 * @return true if the item was moved in the tree
+	 */
+	public boolean move(int id, Cuboid box) {
+		return move(id, box.min.getX(), box.min.getY(), box.min.getZ(), box.max.getX(), box.max.getY(), box.max.getZ());
+	}
+
+	/**
+	 * Updates the bounds of an item. The item is only moved in the tree if
+	 * its new bounds leave the enlarged bounds of its leaf.
+	 *
+	 * @param id The ID of the item in the tree
+	 * @param box The new bounds of the item
+	 * @return true if the item was moved in the tree
+	 */
+	public boolean move(int id, MutableCuboid box) {
+		return move(id, box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ);
+	}
+
+	private boolean move(int id, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+		checkLeaf(id);
+		setItemBounds(id, minX, minY, minZ, maxX, maxY, maxZ);
+		int b = id * 6;
+		if (bounds[b] <= itemBounds[b] && bounds[b + 1] <= itemBounds[b + 1] && bounds[b + 2] <= itemBounds[b + 2]
+			&& bounds[b + 3] >= itemBounds[b + 3] && bounds[b + 4] >= itemBounds[b + 4] && bounds[b + 5] >= itemBounds[b + 5]) {
+			return false;
+		}
+
+		removeLeaf(id);
+		insertLeaf(id);
+		return true;
+	}
+
+	/**
+	 * Removes an item from the tree.
+	 *
+	 * @param id The ID of the item in the tree
+	 */
+	public void remove(int id) {
+		checkLeaf(id);
+		removeLeaf(id);
+		freeNode(id);
+		size--;
+	}
+
+	/**
+	 * @param id The ID of the item in the tree
+	 * @return The item
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(int id) {
+		checkLeaf(id);
+		return (T) items[id];
+	}
+
+	/**
+	 * Finds all items whose bounds intersect a box, including items that
+	 * only touch it.
+	 *
+	 * @param box The box
+	 * @param consumer Accepts the items, and must not modify the tree
+	 */
+	@SuppressWarnings("unchecked")
+	public void query(Cuboid box, Consumer<T> consumer) {
+		if (root == NULL) {
+			return;
+		}
+
+		double minX = box.min.getX(), minY = box.min.getY(), minZ = box.min.getZ();
+		double maxX = box.max.getX(), maxY = box.max.getY(), maxZ = box.max.getZ();
+		int[] stack = new int[Math.max(16, height[root] * 2 + 2)];
+		int top = 0;
+		stack[top++] = root;
+		while (top > 0) {
+			int node = stack[--top];
+			if (!overlaps(bounds, node, minX, minY, minZ, maxX, maxY, maxZ)) {
+				continue;
+			}
+			if (height[node] == 0) {
+				if (overlaps(itemBounds, node, minX, minY, minZ, maxX, maxY, maxZ)) {
+					consumer.accept((T) items[node]);
+				}
+			} else {
+				stack = push(stack, top, child1[node], child2[node]);
+				top += 2;
+			}
+		}
+	}
+
+	/**
+	 * Finds all items whose bounds are hit by a ray, in no particular order.
+	 *
+	 * @param ray The ray
+	 * @param distance The length of the ray
+	 * @param consumer Accepts the items, and must not modify the tree
+	 */
+	@SuppressWarnings("unchecked")
+	public void rayTrace(Ray ray, double distance, Consumer<T> consumer) {
+		if (root == NULL) {
+			return;
+		}
+
+		double originX = ray.origin.getX(), originY = ray.origin.getY(), originZ = ray.origin.getZ();
+		double invX = ray.invDir.getX(), invY = ray.invDir.getY(), invZ = ray.invDir.getZ();
+		int[] stack = new int[Math.max(16, height[root] * 2 + 2)];
+		int top = 0;
+		stack[top++] = root;
+		while (top > 0) {
+			int node = stack[--top];
+			if (!hits(bounds, node, originX, originY, originZ, invX, invY, invZ, distance)) {
+				continue;
+			}
+			if (height[node] == 0) {
+				if (hits(itemBounds, node, originX, originY, originZ, invX, invY, invZ, distance)) {
+					consumer.accept((T) items[node]);
+				}
+			} else {
+				stack = push(stack, top, child1[node], child2[node]);
+				top += 2;
+			}
+		}
+	}
+
+	/**
+	 * Finds the items closest to a point, measured by the distance between
+	 * the point and the bounds of the items.
+	 *
+	 * @param point The point
+	 * @param k The maximum number of items to find
+	 * @return The closest items, from closest to furthest
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> nearest(Vector3D point, int k) {
+		if (root == NULL || k <= 0) {
+			return Collections.emptyList();
+		}
+
+		double x = point.getX(), y = point.getY(), z = point.getZ();
+		//The closest items found so far, sorted by distance
+		int[] found = new int[k];
+		double[] foundDistance = new double[k];
+		int count = 0;
+
+		PriorityQueue<Candidate> queue = new PriorityQueue<>();
+		queue.add(new Candidate(root, distanceSq(bounds, root, x, y, z)));
+		while (!queue.isEmpty()) {
+			Candidate candidate = queue.poll();
+			if (count == k && candidate.distanceSq >= foundDistance[k - 1]) {
+				break;
+			}
+
+			int node = candidate.node;
+			if (height[node] == 0) {
+				double distance = distanceSq(itemBounds, node, x, y, z);
+				if (count < k || distance < foundDistance[k - 1]) {
+					int i = count < k ? count++ : k - 1;
+					while (i > 0 && foundDistance[i - 1] > distance) {
+						found[i] = found[i - 1];
+						foundDistance[i] = foundDistance[i - 1];
+						i--;
+					}
+					found[i] = node;
+					foundDistance[i] = distance;
+				}
+			} else {
+				queue.add(new Candidate(child1[node], distanceSq(bounds, child1[node], x, y, z)));
+				queue.add(new Candidate(child2[node], distanceSq(bounds, child2[node], x, y, z)));
+			}
+		}
+
+		List<T> result = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			result.add((T) items[found[i]]);
+		}
+		return result;
+	}
+
+	/**
+	 * Checks the structure of the tree.
+	 *
+	 * @throws IllegalStateException if the tree is broken
+	 */
+	void validate() {
+		if (root != NULL && parent[root] != NULL) {
+			throw new IllegalStateException("Root has a parent");
+		}
+		int leaves = validate(root);
+		if (leaves != size) {
+			throw new IllegalStateException("Tree contains " + leaves + " leaves, but has size " + size);
+		}
+	}
+
+	private int validate(int node) {
+		if (node == NULL) {
+			return 0;
+		}
+		if (height[node] == 0) {
+			return 1;
+		}
+
+		int a = child1[node];
+		int b = child2[node];
+		if (parent[a] != node || parent[b] != node) {
+			throw new IllegalStateException("Wrong parent of the children of node " + node);
+		}
+		if (height[node] != 1 + Math.max(height[a], height[b])) {
+			throw new IllegalStateException("Wrong height of node " + node);
+		}
+		if (Math.abs(height[a] - height[b]) > 1) {
+			throw new IllegalStateException("Node " + node + " is not balanced");
+		}
+		for (int i = 0; i < 3; i++) {
+			if (bounds[node * 6 + i] != Math.min(bounds[a * 6 + i], bounds[b * 6 + i])
+				|| bounds[node * 6 + 3 + i] != Math.max(bounds[a * 6 + 3 + i], bounds[b * 6 + 3 + i])) {
+				throw new IllegalStateException("Wrong bounds of node " + node);
+			}
+		}
+		return validate(a) + validate(b);
+	}
+
+	private void checkLeaf(int id) {
+		if (id < 0 || id >= height.length || height[id] != 0) {
+			throw new IllegalArgumentException("No item with ID " + id);
+		}
+	}
+
+	private void setItemBounds(int leaf, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+		int b = leaf * 6;
+		itemBounds[b] = minX;
+		itemBounds[b + 1] = minY;
+		itemBounds[b + 2] = minZ;
+		itemBounds[b + 3] = maxX;
+		itemBounds[b + 4] = maxY;
+		itemBounds[b + 5] = maxZ;
+	}
+
+	private void insertLeaf(int leaf) {
+		int b = leaf * 6;
+		for (int i = 0; i < 3; i++) {
+			bounds[b + i] = itemBounds[b + i] - margin;
+			bounds[b + 3 + i] = itemBounds[b + 3 + i] + margin;
+		}
+
+		if (root == NULL) {
+			root = leaf;
+			parent[leaf] = NULL;
+			return;
+		}
+
+		//Find the sibling that enlarges the surface area of the tree the least
+		int index = root;
+		while (height[index] > 0) {
+			double area = area(index, NULL);
+			double combinedArea = area(index, leaf);
+			//The cost of making a new parent for this node and the new leaf
+			double cost = 2 * combinedArea;
+			//The minimum cost of pushing the leaf further down the tree
+			double inheritanceCost = 2 * (combinedArea - area);
+			double cost1 = descendCost(child1[index], leaf) + inheritanceCost;
+			double cost2 = descendCost(child2[index], leaf) + inheritanceCost;
+			if (cost < cost1 && cost < cost2) {
+				break;
+			}
+			index = cost1 < cost2 ? child1[index] : child2[index];
+		}
+
+		int sibling = index;
+		int oldParent = parent[sibling];
+		int newParent = allocateNode();
+		parent[newParent] = oldParent;
+		items[newParent] = null;
+		height[newParent] = height[sibling] + 1;
+		union(newParent, leaf, sibling);
+
+		if (oldParent != NULL) {
+			if (child1[oldParent] == sibling) {
+				child1[oldParent] = newParent;
+			} else {
+				child2[oldParent] = newParent;
+			}
+		} else {
+			root = newParent;
+		}
+		child1[newParent] = sibling;
+		child2[newParent] = leaf;
+		parent[sibling] = newParent;
+		parent[leaf] = newParent;
+
+		refit(parent[leaf]);
+	}
+
+	private void removeLeaf(int leaf) {
+		if (leaf == root) {
+			root = NULL;
+			return;
+		}
+
+		int oldParent = parent[leaf];
+		int grandParent = parent[oldParent];
+		int sibling = child1[oldParent] == leaf ? child2[oldParent] : child1[oldParent];
+
+		if (grandParent != NULL) {
+			if (child1[grandParent] == oldParent) {
+				child1[grandParent] = sibling;
+			} else {
+				child2[grandParent] = sibling;
+			}
+			parent[sibling] = grandParent;
+			freeNode(oldParent);
+			refit(grandParent);
+		} else {
+			root = sibling;
+			parent[sibling] = NULL;
+			freeNode(oldParent);
+		}
+	}
+
+	/**
+	 * Balances the ancestors of a node and fits their bounds and heights.
+	 */
+	private void refit(int index) {
+		while (index != NULL) {
+			index = balance(index);
+			int a = child1[index];
+			int b = child2[index];
+			height[index] = 1 + Math.max(height[a], height[b]);
+			union(index, a, b);
+			index = parent[index];
+		}
+	}
+
+	/**
+	 * Rotates the tree at a node if one of its children is higher than the other by more than one.
+	 *
+	 * @return The node that took the place of the node
+	 */
+	private int balance(int a) {
+		if (height[a] < 2) {
+			return a;
+		}
+
+		int b = child1[a];
+		int c = child2[a];
+		int balance = height[c] - height[b];
+
+		if (balance > 1) {
+			//Rotate c up
+			int f = child1[c];
+			int g = child2[c];
+			child1[c] = a;
+			replaceChild(a, c);
+			if (height[f] > height[g]) {
+				child2[c] = f;
+				child2[a] = g;
+				parent[g] = a;
+				union(a, b, g);
+				union(c, a, f);
+				height[a] = 1 + Math.max(height[b], height[g]);
+				height[c] = 1 + Math.max(height[a], height[f]);
+			} else {
+				child2[c] = g;
+				child2[a] = f;
+				parent[f] = a;
+				union(a, b, f);
+				union(c, a, g);
+				height[a] = 1 + Math.max(height[b], height[f]);
+				height[c] = 1 + Math.max(height[a], height[g]);
+			}
+			return c;
+		}
+
+		if (balance < -1) {
+			//Rotate b up
+			int d = child1[b];
+			int e = child2[b];
+			child1[b] = a;
+			replaceChild(a, b);
+			if (height[d] > height[e]) {
+				child2[b] = d;
+				child1[a] = e;
+				parent[e] = a;
+				union(a, c, e);
+				union(b, a, d);
+				height[a] = 1 + Math.max(height[c], height[e]);
+				height[b] = 1 + Math.max(height[a], height[d]);
+			} else {
+				child2[b] = e;
+				child1[a] = d;
+				parent[d] = a;
+				union(a, c, d);
+				union(b, a, e);
+				height[a] = 1 + Math.max(height[c], height[d]);
+				height[b] = 1 + Math.max(height[a], height[e]);
+			}
+			return b;
+		}
+
+		return a;
+	}
+
+	/**
+	 * Moves a child up to the place of its parent, and makes the parent its child.
+	 */
+	private void replaceChild(int node, int child) {
+		int grandParent = parent[node];
+		parent[child] = grandParent;
+		parent[node] = child;
+		if (grandParent != NULL) {
+			if (child1[grandParent] == node) {
+				child1[grandParent] = child;
+			} else {
+				child2[grandParent] = child;
+			}
+		} else {
+			root = child;
+		}
+	}
+
+	/**
+	 * Sets the bounds of a node to the union of two other nodes.
+	 */
+	private void union(int node, int a, int b) {
+		int n = node * 6, i = a * 6, j = b * 6;
+		bounds[n] = Math.min(bounds[i], bounds[j]);
+		bounds[n + 1] = Math.min(bounds[i + 1], bounds[j + 1]);
+		bounds[n + 2] = Math.min(bounds[i + 2], bounds[j + 2]);
+		bounds[n + 3] = Math.max(bounds[i + 3], bounds[j + 3]);
+		bounds[n + 4] = Math.max(bounds[i + 4], bounds[j + 4]);
+		bounds[n + 5] = Math.max(bounds[i + 5], bounds[j + 5]);
+	}
+
+	/**
+	 * @return The surface area of a node, or of the union of two nodes
+	 */
+	private double area(int a, int b) {
+		int i = a * 6, j = (b == NULL ? a : b) * 6;
+		double dx = Math.max(bounds[i + 3], bounds[j + 3]) - Math.min(bounds[i], bounds[j]);
+		double dy = Math.max(bounds[i + 4], bounds[j + 4]) - Math.min(bounds[i + 1], bounds[j + 1]);
+		double dz = Math.max(bounds[i + 5], bounds[j + 5]) - Math.min(bounds[i + 2], bounds[j + 2]);
+		return 2 * (dx * dy + dy * dz + dz * dx);
+	}
+
+	private double descendCost(int child, int leaf) {
+		double combinedArea = area(child, leaf);
+		return height[child] == 0 ? combinedArea : combinedArea - area(child, NULL);
+	}
+
+	private static boolean overlaps(double[] bounds, int node, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+		int b = node * 6;
+		return IntersectionUtil.overlaps(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5], minX, minY, minZ, maxX, maxY, maxZ);
+	}
+
+	private static boolean hits(double[] bounds, int node, double originX, double originY, double originZ, double invX, double invY, double invZ, double distance) {
+		int b = node * 6;
+		return !Double.isNaN(IntersectionUtil.rayBox(
+			originX, originY, originZ, invX, invY, invZ,
+			bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5],
+			0, distance
+		));
+	}
+
+	/**
+	 * @return The squared distance between a point and the bounds of a node, 0 if the point is inside
+	 */
+	private static double distanceSq(double[] bounds, int node, double x, double y, double z) {
+		int b = node * 6;
+		return IntersectionUtil.distanceSq(x, y, z, bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5]);
+	}
+
+	private static int[] push(int[] stack, int top, int a, int b) {
+		if (top + 2 > stack.length) {
+			stack = Arrays.copyOf(stack, stack.length * 2);
+		}
+		stack[top] = a;
+		stack[top + 1] = b;
+		return stack;
+	}
+
+	private int allocateNode() {
+		if (freeList == NULL) {
+			allocate(height.length * 2);
+		}
+		int node = freeList;
+		freeList = parent[node];
+		parent[node] = NULL;
+		child1[node] = NULL;
+		child2[node] = NULL;
+		return node;
+	}
+
+	private void freeNode(int node) {
+		parent[node] = freeList;
+		height[node] = -1;
+		items[node] = null;
+		freeList = node;
+	}
+
+	/**
+	 * Grows the node arrays and adds the new nodes to the free list.
+	 */
+	private void allocate(int capacity) {
+		int old = height == null ? 0 : height.length;
+		bounds = bounds == null ? new double[capacity * 6] : Arrays.copyOf(bounds, capacity * 6);
+		itemBounds = itemBounds == null ? new double[capacity * 6] : Arrays.copyOf(itemBounds, capacity * 6);
+		parent = parent == null ? new int[capacity] : Arrays.copyOf(parent, capacity);
+		child1 = child1 == null ? new int[capacity] : Arrays.copyOf(child1, capacity);
+		child2 = child2 == null ? new int[capacity] : Arrays.copyOf(child2, capacity);
+		height = height == null ? new int[capacity] : Arrays.copyOf(height, capacity);
+		items = items == null ? new Object[capacity] : Arrays.copyOf(items, capacity);
+		for (int i = capacity - 1; i >= old; i--) {
+			parent[i] = freeList;
+			height[i] = -1;
+			freeList = i;
+		}
+	}
+
+	private static class Candidate implements Comparable<Candidate> {
+		private final int node;
+		private final double distanceSq;
+
+		private Candidate(int node, double distanceSq) {
+			this.node = node;
+			this.distanceSq = distanceSq;
+		}
+
+		@Override
+		public int compareTo(Candidate o) {
+			return Double.compare(distanceSq, o.distanceSq);
+		}
+	}
+}
@@ -41,7 +41,7 @@ public class Cuboid extends Shape<Cuboid, Cuboid> {
 
 	@Override
 	public Cuboid add(double other) {
-		return new Cuboid(min.add(Vector3DUtil.ONE.scalarMultiply(other)), max.add(Vector3DUtil.ONE.scalarMultiply(other)));
+		return new Cuboid(min.getX() + other, min.getY() + other, min.getZ() + other, max.getX() + other, max.getY() + other, max.getZ() + other);
 	}
 
 	public Cuboid $plus(Vector3D other) {
@@ -81,7 +81,7 @@ public class Cuboid extends Shape<Cuboid, Cuboid> {
 	 * @return New cuboid
 	 */
 	public Cuboid expand(double other) {
-		return new Cuboid(min.subtract(Vector3DUtil.ONE.scalarMultiply(other)), max.add(Vector3DUtil.ONE.scalarMultiply(other)));
+		return new Cuboid(min.getX() - other, min.getY() - other, min.getZ() - other, max.getX() + other, max.getY() + other, max.getZ() + other);
 	}
 
 	/**
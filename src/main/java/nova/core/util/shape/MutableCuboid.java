@@ -0,0 +1,132 @@
+package nova.core.util.shape;
+
+import nova.core.util.Ray;
+import nova.core.util.math.IntersectionUtil;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+/**
+ * A mutable cuboid stored as six doubles, for collision and ray trace loops
+ * that would otherwise create a new {@link Cuboid} and its two vectors for
+ * every offset or expansion. All operations change this cuboid and return it,
+ * so they can be chained.
+ */
+public final class MutableCuboid {
+
+	public double minX;
+	public double minY;
+	public double minZ;
+	public double maxX;
+	public double maxY;
+	public double maxZ;
+
+	public MutableCuboid() {
+	}
+
+	public MutableCuboid(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+		set(minX, minY, minZ, maxX, maxY, maxZ);
+	}
+
+	public MutableCuboid(Cuboid cuboid) {
+		set(cuboid);
+	}
+
+	public MutableCuboid set(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+		this.minX = minX;
+		this.minY = minY;
+		this.minZ = minZ;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		this.maxZ = maxZ;
+		return this;
+	}
+
+	public MutableCuboid set(Cuboid cuboid) {
+		return set(cuboid.min.getX(), cuboid.min.getY(), cuboid.min.getZ(), cuboid.max.getX(), cuboid.max.getY(), cuboid.max.getZ());
+	}
+
+	public MutableCuboid set(MutableCuboid cuboid) {
+		return set(cuboid.minX, cuboid.minY, cuboid.minZ, cuboid.maxX, cuboid.maxY, cuboid.maxZ);
+	}
+
+	/**
+	 * Moves the cuboid.
+	 * @param x The x offset
+	 * @param y The y offset
+	 * @param z The z offset
+	 * @return This
+	 */
+	public MutableCuboid offset(double x, double y, double z) {
+		return set(minX + x, minY + y, minZ + z, maxX + x, maxY + y, maxZ + z);
+	}
+
+	public MutableCuboid offset(Vector3D vec) {
+		return offset(vec.getX(), vec.getY(), vec.getZ());
+	}
+
+	/**
+	 * Expands the cuboid by a certain amount on every side.
+	 * @param amount The amount
+	 * @return This
+	 */
+	public MutableCuboid expand(double amount) {
+		return set(minX - amount, minY - amount, minZ - amount, maxX + amount, maxY + amount, maxZ + amount);
+	}
+
+	/**
+	 * Grows the cuboid to contain another cuboid.
+	 * @param other The other cuboid
+	 * @return This
+	 */
+	public MutableCuboid union(MutableCuboid other) {
+		return set(
+			Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+			Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ)
+		);
+	}
+
+	/**
+	 * Checks if another cuboid intersects or touches this cuboid.
+	 * @param other The other cuboid
+	 * @return Result of the check
+	 */
+	public boolean intersects(MutableCuboid other) {
+		return IntersectionUtil.overlaps(minX, minY, minZ, maxX, maxY, maxZ, other.minX, other.minY, other.minZ, other.maxX, other.maxY, other.maxZ);
+	}
+
+	/**
+	 * Checks if a point is within or on this cuboid.
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @param z The z coordinate
+	 * @return Result of the check
+	 */
+	public boolean contains(double x, double y, double z) {
+		return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+	}
+
+	/**
+	 * Calculates the intersection of a ray with this cuboid.
+	 * @param ray The ray
+	 * @param minDist The minimum distance
+	 * @param maxDist The maximum distance
+	 * @return The distance along the ray at which it enters the cuboid, or NaN if it misses
+	 * @see IntersectionUtil#rayBox
+	 */
+	public double rayTrace(Ray ray, double minDist, double maxDist) {
+		return IntersectionUtil.rayBox(
+			ray.origin.getX(), ray.origin.getY(), ray.origin.getZ(),
+			ray.invDir.getX(), ray.invDir.getY(), ray.invDir.getZ(),
+			minX, minY, minZ, maxX, maxY, maxZ,
+			minDist, maxDist
+		);
+	}
+
+	public Cuboid toCuboid() {
+		return new Cuboid(minX, minY, minZ, maxX, maxY, maxZ);
+	}
+
+	@Override
+	public String toString() {
+		return "MutableCuboid[" + minX + ", " + minY + ", " + minZ + "] -> [" + maxX + ", " + maxY + ", " + maxZ + "]";
+	}
+}
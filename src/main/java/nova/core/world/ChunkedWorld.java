@@ -0,0 +1,612 @@
+package nova.core.world;
+
+import nova.core.block.Block;
+import nova.core.block.BlockFactory;
+import nova.core.block.Stateful;
+import nova.core.component.transform.BlockTransform;
+import nova.core.component.transform.EntityTransform;
+import nova.core.entity.Entity;
+import nova.core.entity.EntityFactory;
+import nova.core.item.Item;
+import nova.core.sound.Sound;
+import nova.core.util.UniqueIdentifiable;
+import nova.core.util.shape.Cuboid;
+import nova.internal.core.Game;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A world that keeps its blocks in memory, for headless servers and tests.
+ *
+ * Blocks are stored in sections of {@link #SECTION_SIZE} blocks on each side,
+ * which line up with the {@link Region regions} updaters are grouped by.
+ * A section holds a palette of the block factories in it, and the palette
+ * index of every block packed into as few bits as the palette needs. Sections
+ * that only contain air are not stored.
+ *
+ * Block instances are only kept for {@link Stateful} blocks and blocks that
+ * were set with constructor arguments. Stateful blocks set without arguments
+ * are created the first time they are looked up. Other blocks are created
+ * each time they are looked up, so changes to them are not kept. Callers that
+ * only need some blocks should use {@link #getBlockFactory(int, int, int)} or
+ * {@link #getBlockWith(int, int, int, Class)}, which do not create the others.
+ */
+public class ChunkedWorld extends World {
+
+	/**
+	 * The number of bits of a block coordinate within its section.
+	 */
+	public static final int SECTION_SHIFT = Region.SHIFT;
+
+	/**
+	 * The size of a section in blocks.
+	 */
+	public static final int SECTION_SIZE = 1 << SECTION_SHIFT;
+
+	/**
+	 * Blocks can be set from -LIMIT to LIMIT - 1 on every axis.
+	 * Outside of that is the void.
+	 */
+	public static final int LIMIT = 1 << 24;
+
+	private static final int SECTION_MASK = SECTION_SIZE - 1;
+	private static final int SECTION_VOLUME = SECTION_SIZE * SECTION_SIZE * SECTION_SIZE;
+	//The bits of a section coordinate in a section key
+	private static final int KEY_BITS = 21;
+	private static final long KEY_MASK = (1L << KEY_BITS) - 1;
+
+	private final String id;
+	private final BlockFactory air;
+	private final SectionMap sections = new SectionMap();
+	private final Map<BlockFactory, Boolean> stateful = new ConcurrentHashMap<>();
+	private final Set<Entity> entities = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Creates a world filled with the registered air block.
+	 *
+	 * @param id The ID of the world
+	 */
+	public ChunkedWorld(String id) {
+		this(id, Game.blocks().getAirBlockFactory());
+	}
+
+	/**
+	 * Creates a world filled with air.
+	 *
+	 * @param id The ID of the world
+	 * @param air The factory of the air block
+	 */
+	public ChunkedWorld(String id, BlockFactory air) {
+		this.id = id;
+		this.air = air;
+	}
+
+	@Override
+	public void markStaticRender(Vector3D position) {
+		//There is nothing to render.
+	}
+
+	@Override
+	public void markChange(Vector3D position) {
+		//There is nothing to notify.
+	}
+
+	@Override
+	public Optional<Block> getBlock(Vector3D position) {
+		return getBlock((int) FastMath.floor(position.getX()), (int) FastMath.floor(position.getY()), (int) FastMath.floor(position.getZ()));
+	}
+
+	@Override
+	public Optional<Block> getBlock(int x, int y, int z) {
+		if (!inBounds(x, y, z)) {
+			return Optional.empty();
+		}
+
+		long key = key(x, y, z);
+		int index = index(x, y, z);
+		while (true) {
+			Section section = sections.get(key);
+			if (section == null) {
+				return Optional.of(create(air, x, y, z));
+			}
+
+			Block created;
+			synchronized (section) {
+				if (section.removed) {
+					continue;
+				}
+				Block instance = section.instance(index);
+				if (instance != null) {
+					return Optional.of(instance);
+				}
+				BlockFactory factory = section.factory(index);
+				if (!isStateful(factory)) {
+					return Optional.of(create(factory, x, y, z));
+				}
+				created = create(factory, x, y, z);
+				section.set(index, factory, created);
+			}
+			created.events.publish(new Stateful.LoadEvent());
+			return Optional.of(created);
+		}
+	}
+
+	/**
+	 * Gets the factory of the block at integer block coordinates, without
+	 * creating the block.
+	 *
+	 * @param x The x coordinate of the block
+	 * @param y The y coordinate of the block
+	 * @param z The z coordinate of the block
+	 * @return The factory of the block, or empty in the void.
+	 */
+	public Optional<BlockFactory> getBlockFactory(int x, int y, int z) {
+		if (!inBounds(x, y, z)) {
+			return Optional.empty();
+		}
+
+		long key = key(x, y, z);
+		while (true) {
+			Section section = sections.get(key);
+			if (section == null) {
+				return Optional.of(air);
+			}
+			synchronized (section) {
+				if (!section.removed) {
+					return Optional.of(section.factory(index(x, y, z)));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks the factory of the block first, so blocks that are created on
+	 * lookup are only created if they have the component. Such blocks have
+	 * the {@link BlockTransform} they are created with and the components of
+	 * the factory's {@link BlockFactory#getDummy() dummy}, since they are made
+	 * like it. Blocks whose components depend on anything else should be
+	 * {@link Stateful}, so the instance is checked.
+	 */
+	@Override
+	public Optional<Block> getBlockWith(int x, int y, int z, Class<?> componentType) {
+		if (!inBounds(x, y, z)) {
+			return Optional.empty();
+		}
+
+		long key = key(x, y, z);
+		int index = index(x, y, z);
+		while (true) {
+			Section section = sections.get(key);
+			BlockFactory factory;
+			if (section == null) {
+				factory = air;
+			} else {
+				synchronized (section) {
+					if (section.removed) {
+						continue;
+					}
+					Block instance = section.instance(index);
+					if (instance != null) {
+						return instance.has(componentType) ? Optional.of(instance) : Optional.empty();
+					}
+					factory = section.factory(index);
+				}
+			}
+
+			if (isStateful(factory)) {
+				return getBlock(x, y, z).filter(block -> block.has(componentType));
+			}
+			//Blocks without arguments are made like the dummy, so they have the same components
+			boolean has = componentType.isAssignableFrom(BlockTransform.class) || factory.getDummy().has(componentType);
+			return has ? Optional.of(create(factory, x, y, z)) : Optional.empty();
+		}
+	}
+
+	@Override
+	public boolean setBlock(Vector3D position, BlockFactory blockFactory, Object... args) {
+		return setBlock((int) FastMath.floor(position.getX()), (int) FastMath.floor(position.getY()), (int) FastMath.floor(position.getZ()), blockFactory, args);
+	}
+
+	@Override
+	public boolean setBlock(int x, int y, int z, BlockFactory blockFactory, Object... args) {
+		if (!inBounds(x, y, z)) {
+			return false;
+		}
+
+		long key = key(x, y, z);
+		int index = index(x, y, z);
+		//Blocks set with arguments are kept, since they cannot be created again later
+		Block created = args.length > 0 ? create(blockFactory, x, y, z, args) : null;
+		if (created == null && blockFactory == air && sections.get(key) == null) {
+			return true;
+		}
+
+		while (true) {
+			Section section = sections.getOrAdd(key, air);
+			Block previous;
+			synchronized (section) {
+				if (section.removed) {
+					continue;
+				}
+				previous = section.set(index, blockFactory, created);
+				if (section.isEmpty()) {
+					section.removed = true;
+					sections.remove(section);
+				}
+			}
+
+			if (previous != null) {
+				previous.events.publish(new Stateful.UnloadEvent());
+			}
+			if (created != null) {
+				created.events.publish(new Stateful.LoadEvent());
+			}
+			return true;
+		}
+	}
+
+	@Override
+	public boolean removeBlock(Vector3D position) {
+		return setBlock(position, air);
+	}
+
+	/**
+	 * @return The number of sections that contain blocks other than air
+	 */
+	public int getSectionCount() {
+		return sections.size;
+	}
+
+	@Override
+	public Entity addEntity(EntityFactory factory, Object... args) {
+		return spawn(factory.make(args));
+	}
+
+	/**
+	 * Adds an {@link ItemEntity} that holds the item.
+	 */
+	@Override
+	public Entity addEntity(Vector3D position, Item item) {
+		Entity entity = new ItemEntity(item);
+		entity.add(new EntityTransform());
+		entity.setPosition(position);
+		return spawn(entity);
+	}
+
+	/**
+	 * Adds an entity. There is no client, so client entities are added like any other entity.
+	 */
+	@Override
+	public Entity addClientEntity(EntityFactory factory) {
+		return addEntity(factory);
+	}
+
+	/**
+	 * Adds an entity. There is no client, so client entities are added like any other entity.
+	 */
+	@Override
+	public <T extends Entity> T addClientEntity(T entity) {
+		spawn(entity);
+		return entity;
+	}
+
+	@Override
+	public void removeEntity(Entity entity) {
+		if (entities.remove(entity)) {
+			entityIndex().remove(entity);
+			entityTree().remove(entity);
+		}
+	}
+
+	@Override
+	public Optional<Entity> getEntity(String uniqueID) {
+		return entities.stream()
+			.filter(entity -> entity.getOp(UniqueIdentifiable.class).filter(unique -> unique.getUniqueID().equals(uniqueID)).isPresent())
+			.findAny();
+	}
+
+	@Override
+	public Set<Entity> getEntities(Cuboid bound) {
+		return entityTree().getEntities(bound);
+	}
+
+	@Override
+	public EntityQuery query(Class<?>... componentTypes) {
+		return entityIndex().query(componentTypes);
+	}
+
+	@Override
+	public void playSoundAtPosition(Vector3D position, Sound sound) {
+		//There is nobody to hear it.
+	}
+
+	@Override
+	public String getID() {
+		return id;
+	}
+
+	private Entity spawn(Entity entity) {
+		EntityTransform transform = entity.getOrAdd(new EntityTransform());
+		transform.setWorld(this);
+		entities.add(entity);
+		entityIndex().add(entity);
+		entityTree().add(entity);
+		return entity;
+	}
+
+	private Block create(BlockFactory factory, int x, int y, int z, Object... args) {
+		Block block = factory.makeBlock(args);
+		BlockTransform transform = new BlockTransform();
+		transform.setWorld(this);
+		transform.setPosition(new Vector3D(x, y, z));
+		block.add(transform);
+		return block;
+	}
+
+	private boolean isStateful(BlockFactory factory) {
+		return stateful.computeIfAbsent(factory, f -> {
+			Block dummy = f.getDummy();
+			return dummy instanceof Stateful || dummy.components().stream().anyMatch(component -> component instanceof Stateful);
+		});
+	}
+
+	private static boolean inBounds(int x, int y, int z) {
+		return x >= -LIMIT && x < LIMIT && y >= -LIMIT && y < LIMIT && z >= -LIMIT && z < LIMIT;
+	}
+
+	private static long key(int x, int y, int z) {
+		return ((x >> SECTION_SHIFT) & KEY_MASK) << (2 * KEY_BITS)
+			| ((y >> SECTION_SHIFT) & KEY_MASK) << KEY_BITS
+			| ((z >> SECTION_SHIFT) & KEY_MASK);
+	}
+
+	private static int index(int x, int y, int z) {
+		return (y & SECTION_MASK) << (2 * SECTION_SHIFT) | (z & SECTION_MASK) << SECTION_SHIFT | (x & SECTION_MASK);
+	}
+
+	/**
+	 * An item lying in the world.
+	 */
+	public static class ItemEntity extends Entity {
+		public final Item item;
+
+		public ItemEntity(Item item) {
+			this.item = item;
+		}
+
+		@Override
+		public String getID() {
+			return "item";
+		}
+	}
+
+	/**
+	 * The blocks of a section. The palette index of each block is packed into
+	 * longs with 0, 1, 2, 4, 8 or 16 bits per block, so no index spans two longs.
+	 * With 0 bits every block is air, the first palette entry, which is never replaced.
+	 * Access is synchronized on the section.
+	 */
+	private static final class Section {
+		private final long key;
+		private BlockFactory[] palette;
+		//The number of blocks of each palette entry. Unused entries are reused.
+		private int[] counts;
+		private int paletteSize = 1;
+		//log2 of the bits per block, or -1 for 0 bits
+		private int log = -1;
+		private long[] data;
+		private Block[] instances;
+		private int instanceCount;
+		private boolean removed;
+
+		private Section(long key, BlockFactory air) {
+			this.key = key;
+			palette = new BlockFactory[] { air, null };
+			counts = new int[] { SECTION_VOLUME, 0 };
+		}
+
+		private BlockFactory factory(int index) {
+			return palette[paletteIndex(index)];
+		}
+
+		private Block instance(int index) {
+			return instances != null ? instances[index] : null;
+		}
+
+		/**
+		 * Sets a block.
+		 *
+		 * @return The instance of the block that was replaced, if it was kept
+		 */
+		private Block set(int index, BlockFactory factory, Block instance) {
+			int old = paletteIndex(index);
+			if (palette[old] != factory) {
+				counts[old]--;
+				int value = add(factory);
+				counts[value]++;
+				write(data, log, index, value);
+			}
+
+			Block previous = instance(index);
+			if (previous != instance) {
+				if (instances == null) {
+					instances = new Block[SECTION_VOLUME];
+				}
+				instances[index] = instance;
+				instanceCount += (instance != null ? 1 : 0) - (previous != null ? 1 : 0);
+				if (instanceCount == 0) {
+					instances = null;
+				}
+			}
+			return previous;
+		}
+
+		private boolean isEmpty() {
+			return counts[0] == SECTION_VOLUME && instanceCount == 0;
+		}
+
+		private int paletteIndex(int index) {
+			return log < 0 ? 0 : read(data, log, index);
+		}
+
+		/**
+		 * Finds the palette entry of a factory, or adds it to the palette.
+		 */
+		private int add(BlockFactory factory) {
+			int unused = -1;
+			for (int i = 0; i < paletteSize; i++) {
+				if (palette[i] == factory) {
+					return i;
+				}
+				if (unused < 0 && i > 0 && counts[i] == 0) {
+					unused = i;
+				}
+			}
+			if (unused >= 0) {
+				palette[unused] = factory;
+				return unused;
+			}
+
+			if (paletteSize == palette.length) {
+				palette = Arrays.copyOf(palette, paletteSize * 2);
+				counts = Arrays.copyOf(counts, paletteSize * 2);
+			}
+			if (log < 0 || paletteSize == 1 << (1 << log)) {
+				resize(log + 1);
+			}
+			palette[paletteSize] = factory;
+			return paletteSize++;
+		}
+
+		private void resize(int newLog) {
+			long[] newData = new long[SECTION_VOLUME << newLog >> 6];
+			if (log >= 0) {
+				for (int i = 0; i < SECTION_VOLUME; i++) {
+					write(newData, newLog, i, read(data, log, i));
+				}
+			}
+			data = newData;
+			log = newLog;
+		}
+
+		private static int read(long[] data, int log, int index) {
+			int shift = 6 - log;
+			int offset = (index & ((1 << shift) - 1)) << log;
+			return (int) (data[index >>> shift] >>> offset) & ((1 << (1 << log)) - 1);
+		}
+
+		private static void write(long[] data, int log, int index, int value) {
+			int shift = 6 - log;
+			int offset = (index & ((1 << shift) - 1)) << log;
+			long mask = ((1L << (1 << log)) - 1) << offset;
+			data[index >>> shift] = data[index >>> shift] & ~mask | (long) value << offset;
+		}
+	}
+
+	/**
+	 * The sections by key, in an open addressing table of the sections
+	 * themselves, so looking a section up neither boxes the key nor locks.
+	 * Sections are only added and removed while holding the lock on the map.
+	 * A lookup may still find a section that is being removed, so removed
+	 * sections are marked and callers look them up again.
+	 */
+	private static final class SectionMap {
+		//Takes the slot of a removed section, so probes go on past it
+		private static final Section DELETED = new Section(0, null);
+
+		private volatile AtomicReferenceArray<Section> table = new AtomicReferenceArray<>(16);
+		private volatile int size;
+		//The number of slots that are not empty, including deleted ones
+		private int used;
+
+		private Section get(long key) {
+			AtomicReferenceArray<Section> table = this.table;
+			int mask = table.length() - 1;
+			for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+				Section section = table.get(i);
+				if (section == null) {
+					return null;
+				}
+				if (section != DELETED && section.key == key) {
+					return section;
+				}
+			}
+		}
+
+		private Section getOrAdd(long key, BlockFactory air) {
+			Section section = get(key);
+			return section != null ? section : add(key, air);
+		}
+
+		private synchronized Section add(long key, BlockFactory air) {
+			Section section = get(key);
+			if (section == null) {
+				if ((used + 1) * 2 > table.length()) {
+					rehash();
+				}
+				section = new Section(key, air);
+				insert(table, section);
+				used++;
+				size++;
+			}
+			return section;
+		}
+
+		private synchronized void remove(Section section) {
+			AtomicReferenceArray<Section> table = this.table;
+			int mask = table.length() - 1;
+			for (int i = slot(section.key, mask); ; i = (i + 1) & mask) {
+				Section current = table.get(i);
+				if (current == null) {
+					return;
+				}
+				if (current == section) {
+					table.set(i, DELETED);
+					size--;
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Copies the sections into a new table without deleted slots, that
+		 * is at most a quarter full.
+		 */
+		private void rehash() {
+			int length = 16;
+			while ((size + 1) * 4 > length) {
+				length <<= 1;
+			}
+			AtomicReferenceArray<Section> old = table;
+			AtomicReferenceArray<Section> newTable = new AtomicReferenceArray<>(length);
+			for (int i = 0; i < old.length(); i++) {
+				Section section = old.get(i);
+				if (section != null && section != DELETED) {
+					insert(newTable, section);
+				}
+			}
+			used = size;
+			table = newTable;
+		}
+
+		private static void insert(AtomicReferenceArray<Section> table, Section section) {
+			int mask = table.length() - 1;
+			int i = slot(section.key, mask);
+			while (table.get(i) != null) {
+				i = (i + 1) & mask;
+			}
+			table.set(i, section);
+		}
+
+		private static int slot(long key, int mask) {
+			return (int) (key * 0x9E3779B97F4A7C15L >>> 32) & mask;
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package nova.core.world;
+
+import nova.core.component.Component;
+import nova.core.component.ComponentProvider;
+import nova.core.component.ComponentProvider.ComponentAdded;
+import nova.core.component.ComponentProvider.ComponentRemoved;
+import nova.core.component.ComponentTypes;
+import nova.core.entity.Entity;
+import nova.core.event.EventListenerHandle;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Groups the entities of a world into archetypes, which are the sets of
+ * entities with exactly the same component classes, so {@link EntityQuery
+ * queries} only have to check each archetype once instead of every entity.
+ *
+ * Entities are moved between archetypes when components are added or removed,
+ * and the queries are kept up to date as new archetypes appear.
+ *
+ * @see World#query(Class[])
+ */
+public class EntityIndex {
+
+	private final Map<Set<Class<?>>, Archetype> archetypes = new HashMap<>();
+	private final Map<Entity, Tracked> tracked = new IdentityHashMap<>();
+	private final Map<Set<Class<?>>, EntityQuery> queries = new HashMap<>();
+
+	/**
+	 * Adds an entity to the index. Called by the world when an entity is added to it.
+	 *
+	 * @param entity The entity
+	 */
+	public synchronized void add(Entity entity) {
+		if (tracked.containsKey(entity)) {
+			return;
+		}
+
+		Tracked entry = new Tracked(
+			entity.onComponentAdded.on(ComponentAdded.class).bind(event -> update(entity)),
+			entity.onComponentRemoved.on(ComponentRemoved.class).bind(event -> update(entity))
+		);
+		tracked.put(entity, entry);
+		entry.archetype = archetypeOf(entity);
+		entry.archetype.entities.add(entity);
+	}
+
+	/**
+	 * Removes an entity from the index. Called by the world when an entity is removed from it.
+	 *
+	 * @param entity The entity
+	 */
+	public synchronized void remove(Entity entity) {
+		Tracked entry = tracked.remove(entity);
+		if (entry != null) {
+			entry.added.close();
+			entry.removed.close();
+			entry.archetype.entities.remove(entity);
+		}
+	}
+
+	/**
+	 * @param componentTypes The component types an entity must have
+	 * @return The live view of all entities with the component types
+	 */
+	public synchronized EntityQuery query(Class<?>... componentTypes) {
+		Set<Class<?>> key = new HashSet<>(Arrays.asList(componentTypes));
+		EntityQuery query = queries.get(key);
+		if (query == null) {
+			query = new EntityQuery(componentTypes, mask(componentTypes));
+			for (Archetype archetype : archetypes.values()) {
+				query.offer(archetype);
+			}
+			queries.put(key, query);
+		}
+		return query;
+	}
+
+	private synchronized void update(Entity entity) {
+		Tracked entry = tracked.get(entity);
+		if (entry != null) {
+			Archetype archetype = archetypeOf(entity);
+			if (archetype != entry.archetype) {
+				archetype.entities.add(entity);
+				entry.archetype.entities.remove(entity);
+				entry.archetype = archetype;
+			}
+		}
+	}
+
+	private Archetype archetypeOf(ComponentProvider provider) {
+		Set<Class<?>> classes = new HashSet<>();
+		for (Component component : provider.components()) {
+			classes.add(component.getClass());
+		}
+
+		Archetype archetype = archetypes.get(classes);
+		if (archetype == null) {
+			long[] mask = new long[0];
+			for (Class<?> type : classes) {
+				for (int id : ComponentTypes.getHierarchy(type)) {
+					mask = set(mask, id);
+				}
+			}
+
+			archetype = new Archetype(mask);
+			archetypes.put(classes, archetype);
+			for (EntityQuery query : queries.values()) {
+				query.offer(archetype);
+			}
+		}
+		return archetype;
+	}
+
+	private static long[] mask(Class<?>... types) {
+		long[] mask = new long[0];
+		for (Class<?> type : types) {
+			mask = set(mask, ComponentTypes.getID(type));
+		}
+		return mask;
+	}
+
+	private static long[] set(long[] mask, int id) {
+		if ((id >>> 6) >= mask.length) {
+			mask = Arrays.copyOf(mask, (id >>> 6) + 1);
+		}
+		mask[id >>> 6] |= 1L << id;
+		return mask;
+	}
+
+	/**
+	 * The entities that have exactly the same component classes.
+	 */
+	static class Archetype {
+		final long[] mask;
+		final Set<Entity> entities = ConcurrentHashMap.newKeySet();
+
+		Archetype(long[] mask) {
+			this.mask = mask;
+		}
+
+		/**
+		 * @return true if the archetype has all the types in a mask
+		 */
+		boolean contains(long[] types) {
+			if (types.length > mask.length) {
+				for (int i = mask.length; i < types.length; i++) {
+					if (types[i] != 0) {
+						return false;
+					}
+				}
+			}
+			for (int i = 0; i < Math.min(types.length, mask.length); i++) {
+				if ((mask[i] & types[i]) != types[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private static class Tracked {
+		private final EventListenerHandle<?> added;
+		private final EventListenerHandle<?> removed;
+		private Archetype archetype;
+
+		private Tracked(EventListenerHandle<?> added, EventListenerHandle<?> removed) {
+			this.added = added;
+			this.removed = removed;
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package nova.core.world;
+
+import nova.core.entity.Entity;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * A live view of the entities of a world that have all of a set of component
+ * types. The view is kept up to date as entities are added, removed, or
+ * change their components, so systems can keep a query and iterate it every
+ * tick without testing every entity of the world.
+ *
+ * Iteration is weakly consistent: entities that change during iteration may
+ * or may not be visited.
+ *
+ * @see World#query(Class[])
+ */
+public class EntityQuery implements Iterable<Entity> {
+
+	private final Class<?>[] componentTypes;
+	private final long[] mask;
+	private final List<EntityIndex.Archetype> archetypes = new CopyOnWriteArrayList<>();
+
+	EntityQuery(Class<?>[] componentTypes, long[] mask) {
+		this.componentTypes = componentTypes.clone();
+		this.mask = mask;
+	}
+
+	/**
+	 * Adds an archetype to the query if it matches.
+	 */
+	void offer(EntityIndex.Archetype archetype) {
+		if (archetype.contains(mask)) {
+			archetypes.add(archetype);
+		}
+	}
+
+	/**
+	 * @return The component types of the query
+	 */
+	public List<Class<?>> componentTypes() {
+		return Collections.unmodifiableList(Arrays.asList(componentTypes));
+	}
+
+	/**
+	 * @return The number of matching entities
+	 */
+	public int size() {
+		int size = 0;
+		for (EntityIndex.Archetype archetype : archetypes) {
+			size += archetype.entities.size();
+		}
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public boolean contains(Entity entity) {
+		for (EntityIndex.Archetype archetype : archetypes) {
+			if (archetype.entities.contains(entity)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Iterator<Entity> iterator() {
+		return stream().iterator();
+	}
+
+	public Stream<Entity> stream() {
+		return archetypes.stream().flatMap(archetype -> archetype.entities.stream());
+	}
+
+	/**
+	 * Creates a parallel stream over a snapshot of the matching entities, which
+	 * splits evenly no matter how the entities are spread over archetypes.
+	 *
+	 * @return A parallel stream of the matching entities
+	 */
+	public Stream<Entity> parallelStream() {
+		return Arrays.stream(stream().toArray(Entity[]::new)).parallel();
+	}
+}
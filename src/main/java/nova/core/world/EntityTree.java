@@ -0,0 +1,233 @@
+package nova.core.world;
+
+import nova.core.component.ComponentProvider.ComponentAdded;
+import nova.core.component.ComponentProvider.ComponentRemoved;
+import nova.core.component.misc.Collider;
+import nova.core.component.transform.EntityTransform;
+import nova.core.component.transform.PositionTransform.PositionChangeEvent;
+import nova.core.entity.Entity;
+import nova.core.event.EventListenerHandle;
+import nova.core.util.Ray;
+import nova.core.util.shape.AABBTree;
+import nova.core.util.shape.Cuboid;
+import nova.core.util.shape.MutableCuboid;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the bounds of the entities of a world in an {@link AABBTree}, so
+ * entities can be found in an area, along a ray or near a point without
+ * checking every entity.
+ *
+ * The bounds of an entity are the bounding box of its {@link Collider} at
+ * its position, or just its position if it has no collider. They are updated
+ * when the position of the entity's {@link EntityTransform} changes, or its
+ * components change. Changes to the bounding box of a collider have to be
+ * passed on with {@link #update(Entity)}.
+ *
+ * Moving entities do not lock the tree. Their moves are queued, and applied
+ * to the tree at the next query, so each entity is moved in the tree at most
+ * once between queries.
+ *
+ * @see World#getEntities(Cuboid)
+ */
+public class EntityTree {
+
+	/**
+	 * The distance an entity can move before it has to be moved in the tree.
+	 */
+	public static final double MARGIN = 0.5;
+
+	private final AABBTree<Entity> tree = new AABBTree<>(MARGIN);
+	private final Map<Entity, Tracked> tracked = new IdentityHashMap<>();
+	//Reused for the bounds of the entity that is updated
+	private final MutableCuboid bounds = new MutableCuboid();
+	//Entities that moved since the last query, each queued at most once
+	private final Queue<Tracked> moves = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Adds an entity to the tree. Called by the world when an entity is added to it.
+	 *
+	 * @param entity The entity
+	 */
+	public synchronized void add(Entity entity) {
+		if (tracked.containsKey(entity)) {
+			return;
+		}
+
+		Tracked entry = new Tracked(
+			entity,
+			entity.onComponentAdded.on(ComponentAdded.class).bind(event -> update(entity)),
+			entity.onComponentRemoved.on(ComponentRemoved.class).bind(event -> update(entity))
+		);
+		tracked.put(entity, entry);
+		update(entity);
+	}
+
+	/**
+	 * Removes an entity from the tree. Called by the world when an entity is removed from it.
+	 *
+	 * @param entity The entity
+	 */
+	public synchronized void remove(Entity entity) {
+		Tracked entry = tracked.remove(entity);
+		if (entry != null) {
+			entry.added.close();
+			entry.removed.close();
+			if (entry.moved != null) {
+				entry.moved.close();
+			}
+			if (entry.id >= 0) {
+				tree.remove(entry.id);
+			}
+		}
+	}
+
+	/**
+	 * Updates the bounds of an entity in the tree.
+	 *
+	 * @param entity The entity
+	 */
+	public synchronized void update(Entity entity) {
+		Tracked entry = tracked.get(entity);
+		if (entry == null) {
+			return;
+		}
+
+		EntityTransform transform = entity.getOp(EntityTransform.class).orElse(null);
+		if (transform != entry.transform) {
+			if (entry.moved != null) {
+				entry.moved.close();
+				entry.moved = null;
+			}
+			if (transform != null) {
+				entry.moved = transform.events.on(PositionChangeEvent.class).bind(event -> queueMove(entry));
+			}
+			entry.transform = transform;
+		}
+
+		if (!boundsOf(entity, bounds)) {
+			if (entry.id >= 0) {
+				tree.remove(entry.id);
+				entry.id = -1;
+			}
+		} else if (entry.id < 0) {
+			entry.id = tree.add(entity, bounds);
+		} else {
+			tree.move(entry.id, bounds);
+		}
+	}
+
+	private void queueMove(Tracked entry) {
+		if (entry.queued.compareAndSet(false, true)) {
+			moves.add(entry);
+		}
+	}
+
+	/**
+	 * Applies the queued moves to the tree. Must hold the lock on this tree.
+	 */
+	private void applyMoves() {
+		Tracked entry;
+		while ((entry = moves.poll()) != null) {
+			entry.queued.set(false);
+			if (tracked.get(entry.entity) == entry) {
+				update(entry.entity);
+			}
+		}
+	}
+
+	/**
+	 * @param bound The boundary
+	 * @return The entities whose bounds intersect the boundary
+	 */
+	public synchronized Set<Entity> getEntities(Cuboid bound) {
+		applyMoves();
+		Set<Entity> entities = new HashSet<>();
+		tree.query(bound, entities::add);
+		return entities;
+	}
+
+	/**
+	 * @param ray The ray
+	 * @param distance The length of the ray
+	 * @return The entities whose bounds are hit by the ray, in no particular order
+	 */
+	public synchronized List<Entity> rayTrace(Ray ray, double distance) {
+		applyMoves();
+		List<Entity> entities = new ArrayList<>();
+		tree.rayTrace(ray, distance, entities::add);
+		return entities;
+	}
+
+	/**
+	 * @param position The position
+	 * @param k The maximum number of entities
+	 * @return The entities closest to the position, from closest to furthest
+	 */
+	public synchronized List<Entity> nearest(Vector3D position, int k) {
+		applyMoves();
+		return tree.nearest(position, k);
+	}
+
+	/**
+	 * @return The number of entities with bounds in the tree
+	 */
+	public synchronized int size() {
+		applyMoves();
+		return tree.size();
+	}
+
+	public synchronized boolean isEmpty() {
+		applyMoves();
+		return tree.isEmpty();
+	}
+
+	/**
+	 * Sets a cuboid to the bounds of an entity.
+	 *
+	 * @return false if the entity has no position
+	 */
+	private static boolean boundsOf(Entity entity, MutableCuboid bounds) {
+		Optional<EntityTransform> transform = entity.getOp(EntityTransform.class);
+		if (!transform.isPresent() || transform.get().position() == null) {
+			return false;
+		}
+
+		Vector3D position = transform.get().position();
+		Optional<Collider> collider = entity.getOp(Collider.class);
+		if (collider.isPresent()) {
+			bounds.set(collider.get().boundingBox.get());
+		} else {
+			bounds.set(0, 0, 0, 0, 0, 0);
+		}
+		bounds.offset(position);
+		return true;
+	}
+
+	private static class Tracked {
+		private final Entity entity;
+		private final AtomicBoolean queued = new AtomicBoolean();
+		private final EventListenerHandle<?> added;
+		private final EventListenerHandle<?> removed;
+		private EventListenerHandle<?> moved;
+		private EntityTransform transform;
+		private int id = -1;
+
+		private Tracked(Entity entity, EventListenerHandle<?> added, EventListenerHandle<?> removed) {
+			this.entity = entity;
+			this.added = added;
+			this.removed = removed;
+		}
+	}
+}
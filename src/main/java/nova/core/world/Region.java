@@ -0,0 +1,104 @@
+package nova.core.world;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * A cubic region of {@link #SIZE} blocks on each side in a world. Regions are
+ * the {@link nova.core.component.Updater#updateGroup() update groups} of
+ * blocks and entities, so distant regions are updated in parallel.
+ */
+public final class Region {
+
+	/**
+	 * The number of bits of a block coordinate within its region.
+	 */
+	public static final int SHIFT = 4;
+
+	/**
+	 * The size of a region in blocks.
+	 */
+	public static final int SIZE = 1 << SHIFT;
+
+	public final World world;
+	public final int x;
+	public final int y;
+	public final int z;
+
+	public Region(World world, int x, int y, int z) {
+		this.world = world;
+		this.x = x;
+		this.y = y;
+		this.z = z;
+	}
+
+	/**
+	 * Gets the region that contains a block.
+	 * @param world The world
+	 * @param blockX The x coordinate of the block
+	 * @param blockY The y coordinate of the block
+	 * @param blockZ The z coordinate of the block
+	 * @return The region
+	 */
+	public static Region of(World world, int blockX, int blockY, int blockZ) {
+		return new Region(world, blockX >> SHIFT, blockY >> SHIFT, blockZ >> SHIFT);
+	}
+
+	/**
+	 * Gets the region that contains a position.
+	 * @param world The world
+	 * @param position The position
+	 * @return The region
+	 */
+	public static Region of(World world, Vector3D position) {
+		return of(world, (int) FastMath.floor(position.getX()), (int) FastMath.floor(position.getY()), (int) FastMath.floor(position.getZ()));
+	}
+
+	/**
+	 * Checks if a position lies in this region. Work of an updater that
+	 * affects positions outside its region must not run during the parallel
+	 * update, but be deferred with {@link nova.internal.core.tick.UpdateTicker#postQueue(Runnable)}.
+	 * @param world The world of the position
+	 * @param position The position
+	 * @return true if the position lies in this region
+	 */
+	public boolean contains(World world, Vector3D position) {
+		return this.world == world
+			&& (int) FastMath.floor(position.getX()) >> SHIFT == x
+			&& (int) FastMath.floor(position.getY()) >> SHIFT == y
+			&& (int) FastMath.floor(position.getZ()) >> SHIFT == z;
+	}
+
+	/**
+	 * @return The position of the lowest corner of this region
+	 */
+	public Vector3D min() {
+		return new Vector3D(x << SHIFT, y << SHIFT, z << SHIFT);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Region)) {
+			return false;
+		}
+		Region other = (Region) obj;
+		return world == other.world && x == other.x && y == other.y && z == other.z;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = System.identityHashCode(world);
+		hash = 31 * hash + x;
+		hash = 31 * hash + y;
+		hash = 31 * hash + z;
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return "Region[" + (world != null ? world.getID() : null) + ", " + x + ", " + y + ", " + z + "]";
+	}
+}
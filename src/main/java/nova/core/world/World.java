@@ -21,6 +21,9 @@ import java.util.Set;
  */
 public abstract class World implements Identifiable {
 
+	private final EntityIndex entityIndex = new EntityIndex();
+	private final EntityTree entityTree = new EntityTree();
+
 	/**
 	 * Marks a position to render static.
 	 *
@@ -43,6 +46,34 @@ public abstract class World implements Identifiable {
 	 */
 	public abstract Optional<Block> getBlock(Vector3D position);
 
+	/**
+	 * Gets the block at integer block coordinates. Implementations should
+	 * override this to look the block up without creating a position.
+	 *
+	 * @param x The x coordinate of the block
+	 * @param y The y coordinate of the block
+	 * @param z The z coordinate of the block
+	 * @return The block at the position. If the block is air, it will return the air block. If no block is present (the void), it will return an empty optional.
+	 */
+	public Optional<Block> getBlock(int x, int y, int z) {
+		return getBlock(new Vector3D(x, y, z));
+	}
+
+	/**
+	 * Gets the block at integer block coordinates if it has a component.
+	 * Implementations should override this to skip creating blocks that can
+	 * not have the component, such as air.
+	 *
+	 * @param x The x coordinate of the block
+	 * @param y The y coordinate of the block
+	 * @param z The z coordinate of the block
+	 * @param componentType The type of the component
+	 * @return The block at the position, or empty if it does not have the component or is in the void.
+	 */
+	public Optional<Block> getBlockWith(int x, int y, int z, Class<?> componentType) {
+		return getBlock(x, y, z).filter(block -> block.has(componentType));
+	}
+
 	/**
 	 * Sets the block occupying a given position.
 	 *
@@ -53,6 +84,21 @@ public abstract class World implements Identifiable {
 	 */
 	public abstract boolean setBlock(Vector3D position, BlockFactory blockFactory, Object... args);
 
+	/**
+	 * Sets the block at integer block coordinates. Implementations should
+	 * override this to set the block without creating a position.
+	 *
+	 * @param x The x coordinate of the block
+	 * @param y The y coordinate of the block
+	 * @param z The z coordinate of the block
+	 * @param blockFactory The block factory.
+	 * @param args The block constructor arguments.
+	 * @return {@code true} if the replace was successful.
+	 */
+	public boolean setBlock(int x, int y, int z, BlockFactory blockFactory, Object... args) {
+		return setBlock(new Vector3D(x, y, z), blockFactory, args);
+	}
+
 	/**
 	 * Removes the block in the specified position.
 	 *
@@ -103,13 +149,48 @@ public abstract class World implements Identifiable {
 	public abstract Optional<Entity> getEntity(String uniqueID);
 
 	/**
-	 * Gets a set of entities within a certain bound
+	 * Gets a set of entities within a certain bound. Implementations that keep
+	 * the {@link #entityTree() entity tree} up to date can look them up in it.
 	 *
 	 * @param bound The boundary
 	 * @return A set of entities.
 	 */
 	public abstract Set<Entity> getEntities(Cuboid bound);
 
+	/**
+	 * Gets the index of the entities in this world.
+	 * Implementations should add entities to it when they are added to the world,
+	 * and remove them when they leave it.
+	 *
+	 * @return The entity index
+	 */
+	public EntityIndex entityIndex() {
+		return entityIndex;
+	}
+
+	/**
+	 * Gets the tree of the bounds of the entities in this world, used by
+	 * entity ray traces. Implementations
+	 * should add entities to it when they are added to the world, and remove
+	 * them when they leave it.
+	 *
+	 * @return The entity tree
+	 */
+	public EntityTree entityTree() {
+		return entityTree;
+	}
+
+	/**
+	 * Gets all entities that have all of the component types. The returned
+	 * query is a live view that stays up to date, so it can be kept and
+	 * iterated repeatedly. Implementations that keep the
+	 * {@link #entityIndex() entity index} up to date can query it.
+	 *
+	 * @param componentTypes The component types
+	 * @return A view of the entities with the component types
+	 */
+	public abstract EntityQuery query(Class<?>... componentTypes);
+
 	/**
 	 * Plays a sound at a certain position.
 	 *
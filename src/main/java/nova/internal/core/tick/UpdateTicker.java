@@ -1,13 +1,34 @@
 package nova.internal.core.tick;
 
+import nova.core.component.ComponentProvider;
+import nova.core.component.ComponentProvider.ComponentAdded;
+import nova.core.component.ComponentProvider.ComponentRemoved;
 import nova.core.component.Updater;
+import nova.core.component.transform.PositionTransform.PositionChangeEvent;
+import nova.core.component.transform.WorldTransform;
+import nova.core.event.EventBus;
+import nova.core.event.EventListenerHandle;
+import nova.core.util.Histogram;
+import nova.core.util.SectionProfiler;
+import nova.core.util.SectionProfiler.Section;
+import nova.core.world.Region;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.WeakHashMap;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * The update ticker is responsible for ticking Update objects.
@@ -20,7 +41,97 @@ public class UpdateTicker {
 	 */
 	private final Set<Updater> updaters = Collections.newSetFromMap(new WeakHashMap<>());
 
-	private final List<Runnable> preEvents = new ArrayList<>();
+	/**
+	 * The updaters that are not sleeping. The groups are built from this set.
+	 */
+	private final Set<Updater> active = Collections.newSetFromMap(new WeakHashMap<>());
+
+	/**
+	 * The sleeping updaters. Updaters that sleep for a number of ticks are
+	 * also kept in the wheel until they wake up.
+	 */
+	private final Map<Updater, Sleep> sleeping = new WeakHashMap<>();
+
+	/**
+	 * The listeners of the updaters that are component providers, which move
+	 * an updater to another group when its {@link WorldTransform} moves into
+	 * another region, or is added or removed. The listeners only weakly refer
+	 * to their updater, so it can still be garbage collected.
+	 */
+	private final Map<Updater, MoveTracker> moves = new WeakHashMap<>();
+
+	/**
+	 * The number of slots of the timing wheel. Sleeps longer than the wheel
+	 * stay in their slot for several rounds.
+	 */
+	private static final int WHEEL_SIZE = 256;
+
+	/**
+	 * A timing wheel of updaters that sleep for a number of ticks, indexed by
+	 * the tick they wake up in.
+	 */
+	@SuppressWarnings("unchecked")
+	private final List<WheelEntry>[] wheel = (List<WheelEntry>[]) new List<?>[WHEEL_SIZE];
+
+	/**
+	 * The number of the current tick.
+	 */
+	private long tick;
+
+	/**
+	 * The key of the group of updaters that do not declare a group.
+	 */
+	public static final Object DEFAULT_GROUP = new Object() {
+		@Override
+		public String toString() {
+			return "default";
+		}
+	};
+
+	/**
+	 * The number of ticks after which the snapshot is rebuilt even if no
+	 * updater was added, removed or moved, so garbage collected updaters are
+	 * dropped.
+	 */
+	private static final int SNAPSHOT_REFRESH = 100;
+
+	/**
+	 * The updaters of the set, grouped by {@link Updater#updateGroup()}.
+	 * Copied from {@link #groupsByKey} when a group changed, so the tick itself
+	 * does not hold the lock.
+	 */
+	private volatile UpdateGroup[] groups = new UpdateGroup[0];
+	/**
+	 * The groups of the active updaters. Updaters that are added, removed,
+	 * put to sleep or woken join or leave a single group, which is copied at
+	 * the start of the next tick.
+	 */
+	private final Map<Object, UpdateGroup> groupsByKey = new LinkedHashMap<>();
+	private final Map<Updater, UpdateGroup> groupOf = new WeakHashMap<>();
+	private volatile boolean groupsChanged;
+	private int ticksSinceSnapshot;
+
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+	private int parallelThreshold = 1000;
+
+	/**
+	 * Events queued for the next tick. Any thread may add events without
+	 * locking, only the ticking thread removes them.
+	 */
+	private final Queue<Runnable> preEvents = new ConcurrentLinkedQueue<>();
+	/**
+	 * The number of events in the queue, incremented after an event was added.
+	 */
+	private final AtomicInteger preEventCount = new AtomicInteger();
+	private final Histogram drainTimes = new Histogram();
+	private volatile long preQueueBudget = 0;
+
+	/**
+	 * Events queued for the end of the current tick, after all groups were
+	 * updated. Any thread may add events without locking.
+	 */
+	private final Queue<Runnable> postEvents = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger postEventCount = new AtomicInteger();
 
 	/**
 	 * The last update time.
@@ -30,45 +141,411 @@ public class UpdateTicker {
 	private double deltaTime;
 
 	public UpdateTicker() {
-		last = System.currentTimeMillis();
+		last = System.nanoTime();
 	}
 
 	public void add(Updater ticker) {
 		synchronized (updaters) {
-			updaters.add(ticker);
+			if (updaters.add(ticker)) {
+				trackMoves(ticker);
+			}
+			if (!sleeping.containsKey(ticker)) {
+				active.add(ticker);
+				regroup(ticker);
+			}
 		}
 	}
 
 	public void remove(Updater ticker) {
 		synchronized (updaters) {
 			updaters.remove(ticker);
+			active.remove(ticker);
+			sleeping.remove(ticker);
+			leave(ticker);
+			MoveTracker tracker = moves.remove(ticker);
+			if (tracker != null) {
+				tracker.close();
+			}
+		}
+	}
+
+	/**
+	 * Moves an active updater to the group of its current key.
+	 */
+	private void regroup(Updater updater) {
+		synchronized (updaters) {
+			if (active.contains(updater)) {
+				leave(updater);
+				join(updater);
+			}
+		}
+	}
+
+	/**
+	 * Adds an active updater to the group of its current key.
+	 */
+	private void join(Updater updater) {
+		Object key = updater.updateGroup();
+		UpdateGroup group = groupsByKey.computeIfAbsent(key != null ? key : DEFAULT_GROUP, UpdateGroup::new);
+		group.members.add(updater);
+		group.changed = true;
+		groupOf.put(updater, group);
+		groupsChanged = true;
+	}
+
+	/**
+	 * Removes an updater from its group, if it is in one.
+	 */
+	private void leave(Updater updater) {
+		UpdateGroup group = groupOf.remove(updater);
+		if (group != null) {
+			group.members.remove(updater);
+			group.changed = true;
+			groupsChanged = true;
+		}
+	}
+
+	/**
+	 * Regroups an updater whenever its world transform moves into another
+	 * region, so it is updated with its new region from the next tick on.
+	 */
+	private void trackMoves(Updater updater) {
+		if (updater instanceof ComponentProvider) {
+			moves.put(updater, new MoveTracker((ComponentProvider) updater, updater));
+		}
+	}
+
+	/**
+	 * Puts an updater to sleep for a number of ticks. The updater is not
+	 * updated in the next ticks, until it wakes up by itself or is woken
+	 * with {@link #wake(Updater)}. Updaters that have nothing to do should
+	 * sleep, so only updaters with work cost time each tick.
+	 *
+	 * Updaters may put themselves to sleep while they are updated.
+	 *
+	 * @param updater The updater
+	 * @param ticks The number of ticks to skip
+	 */
+	public void sleep(Updater updater, int ticks) {
+		if (ticks <= 0) {
+			wake(updater);
+			return;
+		}
+
+		synchronized (updaters) {
+			if (!updaters.contains(updater)) {
+				return;
+			}
+			Sleep sleep = new Sleep(tick + ticks + 1);
+			sleeping.put(updater, sleep);
+			List<WheelEntry> slot = wheel[(int) (sleep.wakeTick & (WHEEL_SIZE - 1))];
+			if (slot == null) {
+				slot = wheel[(int) (sleep.wakeTick & (WHEEL_SIZE - 1))] = new ArrayList<>();
+			}
+			slot.add(new WheelEntry(updater, sleep));
+			if (active.remove(updater)) {
+				leave(updater);
+			}
+		}
+	}
+
+	/**
+	 * Puts an updater to sleep until it is woken with {@link #wake(Updater)},
+	 * for example by an event bound with {@link #wakeOn(EventBus, Class, Updater)}.
+	 *
+	 * @param updater The updater
+	 */
+	public void sleep(Updater updater) {
+		synchronized (updaters) {
+			if (!updaters.contains(updater)) {
+				return;
+			}
+			sleeping.put(updater, Sleep.UNTIL_WOKEN);
+			if (active.remove(updater)) {
+				leave(updater);
+			}
+		}
+	}
+
+	/**
+	 * Wakes a sleeping updater, so it is updated again from the next tick on.
+	 *
+	 * @param updater The updater
+	 */
+	public void wake(Updater updater) {
+		synchronized (updaters) {
+			if (sleeping.remove(updater) != null && updaters.contains(updater)) {
+				active.add(updater);
+				join(updater);
+			}
 		}
 	}
 
+	/**
+	 * Wakes an updater whenever an event of a type is published on an event bus.
+	 *
+	 * @param events The event bus
+	 * @param eventType The type of the events
+	 * @param updater The updater to wake
+	 * @return The handle of the listener, to stop waking the updater
+	 */
+	public <T, E extends T> EventListenerHandle<T> wakeOn(EventBus<T> events, Class<E> eventType, Updater updater) {
+		return events.on(eventType).bind(event -> wake(updater));
+	}
+
+	/**
+	 * @param updater The updater
+	 * @return true if the updater is sleeping
+	 */
+	public boolean isSleeping(Updater updater) {
+		synchronized (updaters) {
+			return sleeping.containsKey(updater);
+		}
+	}
+
+	/**
+	 * @return The number of updaters that are not sleeping
+	 */
+	public int getActiveCount() {
+		synchronized (updaters) {
+			return active.size();
+		}
+	}
+
+	/**
+	 * @return The number of sleeping updaters
+	 */
+	public int getSleepingCount() {
+		synchronized (updaters) {
+			return sleeping.size();
+		}
+	}
+
+	/**
+	 * Wakes the updaters of the slot of the current tick. Entries of updaters
+	 * that were woken or put to sleep again in the meantime are dropped,
+	 * entries due in a later round of the wheel are kept.
+	 */
+	private void advanceWheel() {
+		synchronized (updaters) {
+			tick++;
+			List<WheelEntry> slot = wheel[(int) (tick & (WHEEL_SIZE - 1))];
+			if (slot == null || slot.isEmpty()) {
+				return;
+			}
+
+			slot.removeIf(entry -> {
+				if (sleeping.get(entry.updater) != entry.sleep) {
+					return true;
+				}
+				if (entry.sleep.wakeTick > tick) {
+					return false;
+				}
+				sleeping.remove(entry.updater);
+				if (updaters.contains(entry.updater)) {
+					active.add(entry.updater);
+					join(entry.updater);
+				}
+				return true;
+			});
+		}
+	}
+
+	/**
+	 * Sets the pool used to update groups in parallel.
+	 * @param pool The pool
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Sets the number of updaters from which groups are updated in parallel.
+	 * @param parallelThreshold The minimum number of updaters for parallel updates
+	 */
+	public void setParallelThreshold(int parallelThreshold) {
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Gets the time each group of updaters took in the last tick.
+	 * @return The group keys mapped to nanoseconds, in the order of the groups
+	 */
+	public Map<Object, Long> getGroupTimes() {
+		Map<Object, Long> times = new LinkedHashMap<>();
+		for (UpdateGroup group : groups) {
+			times.put(group.key, group.nanos);
+		}
+		return times;
+	}
+
+	/**
+	 * Copies the groups that changed since the last tick. All updaters are
+	 * grouped again every {@link #SNAPSHOT_REFRESH} ticks.
+	 */
+	private UpdateGroup[] snapshot() {
+		if (++ticksSinceSnapshot >= SNAPSHOT_REFRESH) {
+			synchronized (updaters) {
+				ticksSinceSnapshot = 0;
+				groupsByKey.clear();
+				groupOf.clear();
+				for (Updater updater : active) {
+					join(updater);
+				}
+				groups = copyGroups();
+			}
+		} else if (groupsChanged) {
+			synchronized (updaters) {
+				groups = copyGroups();
+			}
+		}
+		return groups;
+	}
+
+	/**
+	 * Copies the updaters of the changed groups and drops empty groups.
+	 */
+	private UpdateGroup[] copyGroups() {
+		groupsChanged = false;
+		groupsByKey.values().removeIf(group -> group.members.isEmpty());
+		for (UpdateGroup group : groupsByKey.values()) {
+			if (group.changed) {
+				group.changed = false;
+				group.updaters = group.members.toArray(new Updater[group.members.size()]);
+			}
+		}
+		return groupsByKey.values().toArray(new UpdateGroup[groupsByKey.size()]);
+	}
+
 	/**
 	 * Queues an event to be executed.
 	 * @param func Event to be executed.
 	 */
 	public void preQueue(Runnable func) {
-		synchronized (preEvents) {
-			preEvents.add(func);
+		preEvents.add(func);
+		preEventCount.incrementAndGet();
+	}
+
+	/**
+	 * Queues an event to be executed at the end of the current tick, once all
+	 * groups were updated. Updaters that run in parallel use this for work
+	 * that affects the state of other groups, such as changing blocks in
+	 * another {@link nova.core.world.Region}. Events run on the ticking
+	 * thread in the order they were queued.
+	 * @param func Event to be executed.
+	 */
+	public void postQueue(Runnable func) {
+		postEvents.add(func);
+		postEventCount.incrementAndGet();
+	}
+
+	/**
+	 * Sets the time the queued events may take per tick. Events that do not
+	 * fit in the budget are run in the next tick. At least one event is run
+	 * per tick.
+	 * @param nanos The budget in nanoseconds, or 0 for no limit
+	 */
+	public void setPreQueueBudget(long nanos) {
+		this.preQueueBudget = nanos;
+	}
+
+	/**
+	 * @return The number of queued events
+	 */
+	public int getPreQueueDepth() {
+		return preEventCount.get();
+	}
+
+	/**
+	 * @return The time it took to run the queued events of each tick, in nanoseconds
+	 */
+	public Histogram getDrainTimes() {
+		return drainTimes;
+	}
+
+	/**
+	 * Runs the events that were queued before the drain started, so events
+	 * queued by the events themselves run in the next tick.
+	 */
+	private void drainPreQueue() {
+		int queued = preEventCount.get();
+		if (queued == 0) {
+			return;
+		}
+
+		long start = System.nanoTime();
+		long budget = preQueueBudget;
+		for (int i = 0; i < queued; i++) {
+			if (budget > 0 && i > 0 && System.nanoTime() - start > budget) {
+				break;
+			}
+			Runnable event = preEvents.poll();
+			preEventCount.decrementAndGet();
+			event.run();
+		}
+		drainTimes.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Runs the events that were queued during the tick. Events queued by the
+	 * events themselves run at the end of the next tick.
+	 */
+	private void drainPostQueue() {
+		int queued = postEventCount.get();
+		for (int i = 0; i < queued; i++) {
+			Runnable event = postEvents.poll();
+			postEventCount.decrementAndGet();
+			event.run();
 		}
 	}
 
 	public void update() {
+		SectionProfiler.start("tick");
+		try {
+			SectionProfiler.start("preQueue");
+			try {
+				drainPreQueue();
+			} finally {
+				SectionProfiler.end();
+			}
+
+			SectionProfiler.start("updaters");
+			try {
+				updateGroups();
+			} finally {
+				SectionProfiler.end();
+			}
 
-		synchronized (preEvents) {
-			preEvents.forEach(Runnable::run);
-			preEvents.clear();
+			SectionProfiler.start("postQueue");
+			try {
+				drainPostQueue();
+			} finally {
+				SectionProfiler.end();
+			}
+		} finally {
+			SectionProfiler.end();
 		}
+	}
 
-		long current = System.currentTimeMillis();
-		//The time in milliseconds between the last update and this one.
-		deltaTime = (current - last) / 1000d;
-		synchronized (updaters) {
-			//TODO: Check the threshold
-			Stream<Updater> stream = updaters.size() > 1000 ? updaters.parallelStream() : updaters.stream();
-			stream.forEach(t -> t.update(deltaTime));
+	private void updateGroups() {
+
+		long current = System.nanoTime();
+		//The time in seconds between the last update and this one.
+		deltaTime = (current - last) / 1e9;
+		advanceWheel();
+		UpdateGroup[] groups = snapshot();
+		int size = 0;
+		for (UpdateGroup group : groups) {
+			size += group.updaters.length;
+		}
+
+		Section section = SectionProfiler.current();
+		if (groups.length > 1 && size > parallelThreshold) {
+			pool.invoke(new GroupTask(groups, 0, groups.length, deltaTime, section));
+		} else {
+			for (UpdateGroup group : groups) {
+				group.update(deltaTime, section);
+			}
 		}
 		last = current;
 
@@ -78,6 +555,165 @@ public class UpdateTicker {
 		return deltaTime;
 	}
 
+	/**
+	 * The tick a sleeping updater wakes up in.
+	 */
+	private static class Sleep {
+		private static final Sleep UNTIL_WOKEN = new Sleep(Long.MAX_VALUE);
+
+		private final long wakeTick;
+
+		private Sleep(long wakeTick) {
+			this.wakeTick = wakeTick;
+		}
+	}
+
+	private static class WheelEntry {
+		private final Updater updater;
+		private final Sleep sleep;
+
+		private WheelEntry(Updater updater, Sleep sleep) {
+			this.updater = updater;
+			this.sleep = sleep;
+		}
+	}
+
+	/**
+	 * Regroups an updater when its world transform is added, removed or moves
+	 * into another region.
+	 */
+	private class MoveTracker {
+		private final WeakReference<Updater> updater;
+		private final EventListenerHandle<?> added;
+		private final EventListenerHandle<?> removed;
+		private EventListenerHandle<?> moved;
+
+		private MoveTracker(ComponentProvider provider, Updater updater) {
+			this.updater = new WeakReference<>(updater);
+			added = provider.onComponentAdded.on(ComponentAdded.class).bind(event -> {
+				if (event.component instanceof WorldTransform) {
+					track((WorldTransform<?>) event.component);
+					regroup();
+				}
+			});
+			removed = provider.onComponentRemoved.on(ComponentRemoved.class).bind(event -> {
+				if (event.component instanceof WorldTransform) {
+					untrack();
+					regroup();
+				}
+			});
+			WorldTransform<?> transform = provider.getOp(WorldTransform.class).orElse(null);
+			if (transform != null) {
+				track(transform);
+			}
+		}
+
+		private synchronized void track(WorldTransform<?> transform) {
+			untrack();
+			moved = transform.events.on(PositionChangeEvent.class).bind(event -> {
+				if (!(event.previous instanceof Vector3D) || !(event.position instanceof Vector3D) || transform.world() == null
+					|| !Region.of(transform.world(), (Vector3D) event.previous).contains(transform.world(), (Vector3D) event.position)) {
+					regroup();
+				}
+			});
+		}
+
+		private synchronized void untrack() {
+			if (moved != null) {
+				moved.close();
+				moved = null;
+			}
+		}
+
+		private void regroup() {
+			Updater updater = this.updater.get();
+			if (updater != null) {
+				UpdateTicker.this.regroup(updater);
+			}
+		}
+
+		private void close() {
+			added.close();
+			removed.close();
+			untrack();
+		}
+	}
+
+	/**
+	 * Updaters that are updated one after another on the same thread.
+	 */
+	private static class UpdateGroup {
+		private final Object key;
+		/**
+		 * The updaters of the group, changed while holding the lock of the ticker.
+		 */
+		private final Set<Updater> members = Collections.newSetFromMap(new WeakHashMap<>());
+		private boolean changed;
+		/**
+		 * The updaters updated in a tick, copied from the members by the ticking thread.
+		 */
+		private Updater[] updaters = new Updater[0];
+		private volatile long nanos;
+
+		private UpdateGroup(Object key) {
+			this.key = key;
+		}
+
+		/**
+		 * @param section The section to profile the updaters in, or null if they are not profiled
+		 */
+		private void update(double deltaTime, Section section) {
+			long start = System.nanoTime();
+			if (section == null) {
+				for (Updater updater : updaters) {
+					updater.update(deltaTime);
+				}
+			} else {
+				//Sections are per updater class rather than per group, so there is a bounded number of them
+				for (Updater updater : updaters) {
+					SectionProfiler.start(section, updater.getClass().getName());
+					try {
+						updater.update(deltaTime);
+					} finally {
+						SectionProfiler.end();
+					}
+				}
+			}
+			nanos = System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * Updates a range of groups, splitting it until every task updates a single group.
+	 */
+	private static class GroupTask extends RecursiveAction {
+		private static final long serialVersionUID = 3916254740312571087L;
+
+		private final UpdateGroup[] groups;
+		private final int from;
+		private final int to;
+		private final double deltaTime;
+		private final Section section;
+
+		private GroupTask(UpdateGroup[] groups, int from, int to, double deltaTime, Section section) {
+			this.groups = groups;
+			this.from = from;
+			this.to = to;
+			this.deltaTime = deltaTime;
+			this.section = section;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				groups[from].update(deltaTime, section);
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new GroupTask(groups, from, middle, deltaTime, section), new GroupTask(groups, middle, to, deltaTime, section));
+			}
+		}
+	}
+
 	/**
 	 * A synchronized ticker ticks using the game's update loop.
 	 */
@@ -92,30 +728,127 @@ public class UpdateTicker {
 
 	/**
 	 * A thread ticker ticks independent on the game's update loop.
+	 *
+	 * The thread ticks at a fixed rate. If a tick takes longer than the tick
+	 * interval, the following ticks are run right away to catch up, up to
+	 * {@link #setMaxCatchUpTicks(int)} ticks behind. If the thread falls
+	 * further behind, the missed ticks are skipped.
+	 *
+	 * The thread stops after the current tick when it is {@link #shutdown()
+	 * shut down} or interrupted.
 	 */
 	public static class TickingThread extends Thread {
 		public final UpdateTicker ticker;
 		public final int tps;
+		/**
+		 * @deprecated The thread waits until the next tick is due, see {@link #tickNanos}.
+		 */
+		@Deprecated
 		public final long sleepMillis;
-		public boolean pause = false;
+		/**
+		 * The interval between ticks, in nanoseconds.
+		 */
+		public final long tickNanos;
+		public volatile boolean pause = false;
+
+		private final Histogram tickTimes = new Histogram();
+		private final AtomicLong overruns = new AtomicLong();
+		private final AtomicLong skippedTicks = new AtomicLong();
+		private volatile int maxCatchUpTicks = 5;
+		private volatile boolean running = true;
 
 		public TickingThread(UpdateTicker ticker, int tps) {
 			setName("Nova Thread");
 			setPriority(Thread.MIN_PRIORITY);
 			this.ticker = ticker;
 			this.tps = tps;
-			this.sleepMillis = 1 / tps * 1000;
+			this.sleepMillis = 1000 / tps;
+			this.tickNanos = 1_000_000_000L / tps;
+		}
+
+		/**
+		 * Sets the number of ticks the thread may fall behind before it skips ticks.
+		 * @param maxCatchUpTicks The maximum number of ticks to catch up
+		 */
+		public void setMaxCatchUpTicks(int maxCatchUpTicks) {
+			this.maxCatchUpTicks = maxCatchUpTicks;
+		}
+
+		/**
+		 * @return The durations of all ticks, in nanoseconds
+		 */
+		public Histogram getTickTimes() {
+			return tickTimes;
+		}
+
+		/**
+		 * @return The mean duration of a tick, in nanoseconds
+		 */
+		public double getMeanTickTime() {
+			return tickTimes.mean();
+		}
+
+		/**
+		 * @return The 99th percentile of the tick duration, in nanoseconds
+		 */
+		public long getTickTime99() {
+			return tickTimes.percentile(99);
+		}
+
+		/**
+		 * @return The number of ticks that took longer than the tick interval
+		 */
+		public long getOverruns() {
+			return overruns.get();
+		}
+
+		/**
+		 * @return The number of ticks that were skipped because the thread fell too far behind
+		 */
+		public long getSkippedTicks() {
+			return skippedTicks.get();
+		}
+
+		/**
+		 * Stops the thread after the current tick.
+		 */
+		public void shutdown() {
+			running = false;
+			LockSupport.unpark(this);
 		}
 
 		@Override
 		public void run() {
 			try {
-				while (true) {
+				long next = System.nanoTime();
+				while (running) {
+					//An interrupted thread can not park, so it would spin instead
+					if (isInterrupted()) {
+						running = false;
+						break;
+					}
+
+					long now = System.nanoTime();
+					if (now - next < 0) {
+						LockSupport.parkNanos(this, next - now);
+						continue;
+					}
+
+					long behind = (now - next) / tickNanos;
+					if (behind > maxCatchUpTicks) {
+						skippedTicks.addAndGet(behind);
+						next = now;
+					}
+
 					if (!pause) {
 						ticker.update();
+						long duration = System.nanoTime() - now;
+						tickTimes.record(duration);
+						if (duration > tickNanos) {
+							overruns.incrementAndGet();
+						}
 					}
-
-					Thread.sleep(sleepMillis);
+					next += tickNanos;
 				}
 			} catch (Exception e) {
 				e.printStackTrace();
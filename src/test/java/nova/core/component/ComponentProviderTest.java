@@ -0,0 +1,133 @@
+package nova.core.component;
+
+import nova.core.component.exception.ComponentException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static nova.testutils.NovaAssertions.assertThat;
+
+public class ComponentProviderTest {
+
+	ComponentProvider provider;
+
+	@Before
+	public void setUp() {
+		provider = new ComponentProvider() {
+		};
+	}
+
+	@Test
+	public void testLookup() {
+		TestComponent component = provider.add(new TestComponent());
+
+		assertThat(provider.get(TestComponent.class)).isSameAs(component);
+		assertThat(provider.get(Marker.class)).isSameAs(component);
+		assertThat(provider.get(Component.class)).isSameAs(component);
+		assertThat(provider.has(Marker.class)).isTrue();
+		assertThat(provider.has(OtherComponent.class)).isFalse();
+		assertThat(provider.getOp(OtherComponent.class).isPresent()).isFalse();
+	}
+
+	@Test
+	public void testInvalidation() {
+		assertThat(provider.has(Marker.class)).isFalse();
+
+		TestComponent component = provider.add(new TestComponent());
+		assertThat(provider.has(Marker.class)).isTrue();
+
+		provider.remove(component);
+		assertThat(provider.has(Marker.class)).isFalse();
+		assertThat(provider.has(TestComponent.class)).isFalse();
+	}
+
+	@Test
+	public void testRemoveBySuperType() {
+		TestComponent component = provider.add(new TestComponent());
+		provider.add(new OtherComponent());
+
+		assertThat(provider.remove(BaseComponent.class)).isSameAs(component);
+		assertThat(provider.has(TestComponent.class)).isFalse();
+		assertThat(provider.has(OtherComponent.class)).isTrue();
+		assertThat(provider.components()).hasSize(1);
+	}
+
+	@Test
+	public void testTypeIDs() {
+		int[] hierarchy = ComponentTypes.getHierarchy(TestComponent.class);
+
+		assertThat(hierarchy[0]).isEqualTo(ComponentTypes.getID(TestComponent.class));
+		assertThat(hierarchy).contains(ComponentTypes.getID(BaseComponent.class), ComponentTypes.getID(Marker.class));
+		assertThat(ComponentTypes.getID(TestComponent.class)).isNotEqualTo(ComponentTypes.getID(OtherComponent.class));
+	}
+
+	@Test
+	public void testUpdaters() {
+		class UpdatingProvider extends ComponentProvider implements Updater {
+		}
+		UpdatingProvider provider = new UpdatingProvider();
+		provider.add(new TestComponent());
+		UpdatingComponent first = provider.add(new UpdatingComponent());
+		UpdatingComponent2 second = provider.add(new UpdatingComponent2());
+
+		provider.update(0.5);
+		assertThat(first.time).isEqualTo(0.5);
+		assertThat(second.time).isEqualTo(0.5);
+
+		provider.remove(first);
+		provider.update(0.5);
+		assertThat(first.time).isEqualTo(0.5);
+		assertThat(second.time).isEqualTo(1.0);
+	}
+
+	@Test
+	public void testConcurrentLookup() throws InterruptedException {
+		TestComponent component = provider.add(new TestComponent());
+		AtomicBoolean running = new AtomicBoolean(true);
+		Thread writer = new Thread(() -> {
+			while (running.get()) {
+				provider.remove(provider.add(new OtherComponent()));
+			}
+		});
+		writer.start();
+
+		try {
+			for (int i = 0; i < 100000; i++) {
+				assertThat(provider.get(Marker.class)).isSameAs(component);
+			}
+		} finally {
+			running.set(false);
+			writer.join();
+		}
+	}
+
+	@Test(expected = ComponentException.class)
+	public void testMissing() {
+		provider.get(TestComponent.class);
+	}
+
+	interface Marker {
+	}
+
+	static abstract class BaseComponent extends Component {
+	}
+
+	static class TestComponent extends BaseComponent implements Marker {
+	}
+
+	static class OtherComponent extends Component {
+	}
+
+	static class UpdatingComponent extends Component implements Updater {
+		double time;
+
+		@Override
+		public void update(double deltaTime) {
+			time += deltaTime;
+		}
+	}
+
+	static class UpdatingComponent2 extends UpdatingComponent {
+	}
+}
@@ -69,4 +69,45 @@ public class EventBusTest {
 
 		assertThat(event.toString()).isEqualTo("A");
 	}
+
+	@Test
+	public void testRemovalDuringPublish() {
+		EventBus<TestEvent> listenerList = new EventBus<>();
+		EventListenerHandle<TestEvent> handle = listenerList.on().with(1).bind(new TestEventListener("A"));
+		listenerList.on().bind(event -> handle.close());
+		listenerList.on().with(-1).bind(new TestEventListener("B"));
+
+		TestEvent event = new TestEvent();
+		listenerList.publish(event);
+		assertThat(event.toString()).isEqualTo("AB");
+
+		handle.close();
+		event = new TestEvent();
+		listenerList.publish(event);
+		assertThat(event.toString()).isEqualTo("B");
+	}
+
+	@Test
+	public void testTypedListeners() {
+		EventBus<TestEvent> listenerList = new EventBus<>();
+		listenerList.on().bind(new TestEventListener("A"));
+		listenerList.on(SubEvent.class).with(1).bind(event -> event.append("B"));
+
+		TestEvent event = new TestEvent();
+		listenerList.publish(event);
+		assertThat(event.toString()).isEqualTo("A");
+
+		event = new SubEvent();
+		listenerList.publish(event);
+		assertThat(event.toString()).isEqualTo("BA");
+
+		listenerList.on(SubEvent.class).with(2).bind(event2 -> event2.append("C"));
+		event = new SubEvent();
+		listenerList.publish(event);
+		assertThat(event.toString()).isEqualTo("CBA");
+	}
+
+	public static class SubEvent extends TestEvent {
+
+	}
 }
@@ -0,0 +1,101 @@
+package nova.core.network;
+
+import nova.core.retention.Data;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static nova.testutils.NovaAssertions.assertThat;
+
+public class ByteBufferPacketTest {
+
+	@Test
+	public void testRoundTrip() {
+		ByteBufferPacket packet = new PacketPool().acquire();
+		packet.writeBoolean(true);
+		packet.writeByte(200);
+		packet.writeShort(-2);
+		packet.writeInt(42);
+		packet.writeLong(1L << 40);
+		packet.writeChar('c');
+		packet.writeFloat(1.5f);
+		packet.writeDouble(2.25);
+		packet.writeString("n\u00f6va");
+		Data data = new Data();
+		data.put("value", 3);
+		packet.writeData(data);
+
+		assertThat(packet.readBoolean()).isTrue();
+		assertThat(packet.readUnsignedByte()).isEqualTo((short) 200);
+		assertThat(packet.readShort()).isEqualTo((short) -2);
+		assertThat(packet.readInt()).isEqualTo(42);
+		assertThat(packet.readLong()).isEqualTo(1L << 40);
+		assertThat(packet.readChar()).isEqualTo('c');
+		assertThat(packet.readFloat()).isEqualTo(1.5f);
+		assertThat(packet.readDouble()).isEqualTo(2.25);
+		assertThat(packet.readString()).isEqualTo("n\u00f6va");
+		assertThat(packet.readData()).isEqualTo(data);
+		assertThat(packet.readableBytes()).isEqualTo(0);
+	}
+
+	@Test
+	public void testGrowth() {
+		ByteBufferPacket packet = new PacketPool(4, 1024, 1).acquire();
+		for (int i = 0; i < 100; i++) {
+			packet.writeInt(i);
+		}
+
+		assertThat(packet.writerIndex()).isEqualTo(400);
+		for (int i = 0; i < 100; i++) {
+			assertThat(packet.readInt()).isEqualTo(i);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroCapacity() {
+		new PacketPool(0, 1024, 1);
+	}
+
+	@Test
+	public void testSlice() {
+		ByteBufferPacket packet = new PacketPool().acquire();
+		packet.writeBytes(new byte[] { 1, 2, 3, 4 });
+		packet.readByte();
+
+		ByteBuffer slice = packet.readSlice(2);
+		assertThat(slice.isDirect()).isTrue();
+		assertThat(slice.remaining()).isEqualTo(2);
+		assertThat(slice.get(0)).isEqualTo((byte) 2);
+		assertThat(slice.get(1)).isEqualTo((byte) 3);
+		assertThat(packet.readByte()).isEqualTo((byte) 4);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testReadPastEnd() {
+		ByteBufferPacket packet = new PacketPool().acquire();
+		packet.writeShort(1);
+		packet.readInt();
+	}
+
+	@Test
+	public void testPooling() {
+		PacketPool pool = new PacketPool();
+		ByteBufferPacket packet = pool.acquire();
+		packet.setID(3).writeInt(1);
+		packet.release();
+		assertThat(pool.size()).isEqualTo(1);
+
+		ByteBufferPacket reused = pool.acquire();
+		assertThat(reused).isSameAs(packet);
+		assertThat(reused.getID()).isEqualTo(0);
+		assertThat(reused.readableBytes()).isEqualTo(0);
+		assertThat(pool.size()).isEqualTo(0);
+	}
+
+	@Test(expected = NetworkException.class)
+	public void testDoubleRelease() {
+		ByteBufferPacket packet = new PacketPool().acquire();
+		packet.release();
+		packet.release();
+	}
+}
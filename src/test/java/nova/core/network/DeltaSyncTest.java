@@ -0,0 +1,206 @@
+package nova.core.network;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static nova.testutils.NovaAssertions.assertThat;
+
+public class DeltaSyncTest {
+
+	DeltaSync deltaSync;
+	PacketPool pool;
+
+	@Before
+	public void setUp() {
+		deltaSync = new DeltaSync().setEnabled(true);
+		pool = new PacketPool();
+	}
+
+	@Test
+	public void testDelta() {
+		Fields sender = new Fields();
+		Fields receiver = new Fields();
+		sender.a = 1;
+		sender.b = 2;
+		sender.name = "first";
+
+		ByteBufferPacket full = sync(sender, receiver);
+		assertThat(full.writerIndex()).isGreaterThan(0);
+		assertThat(receiver.b).isEqualTo(2);
+		assertThat(receiver.name).isEqualTo("first");
+
+		sender.b = 3;
+		ByteBufferPacket delta = sync(sender, receiver);
+		assertThat(delta.readableBuffer().get(0)).isEqualTo(DeltaSync.DELTA);
+		assertThat(delta.writerIndex()).isLessThan(full.writerIndex());
+		assertThat(receiver.a).isEqualTo(1);
+		assertThat(receiver.b).isEqualTo(3);
+		assertThat(receiver.c).isEqualTo(0);
+		assertThat(receiver.name).isEqualTo("first");
+	}
+
+	@Test
+	public void testFullSync() {
+		Fields sender = new Fields();
+		Fields receiver = new Fields();
+
+		assertThat(sync(sender, receiver).readableBuffer().get(0)).isEqualTo(DeltaSync.FULL);
+		sender.a = 1;
+		assertThat(sync(sender, receiver).readableBuffer().get(0)).isEqualTo(DeltaSync.DELTA);
+
+		//Every field changed
+		sender.a = 2;
+		sender.b = 2;
+		sender.c = 2;
+		sender.name = "changed";
+		assertThat(sync(sender, receiver).readableBuffer().get(0)).isEqualTo(DeltaSync.FULL);
+		assertThat(receiver.name).isEqualTo("changed");
+
+		deltaSync.setFullSyncInterval(1);
+		sender.a = 3;
+		assertThat(sync(sender, receiver).readableBuffer().get(0)).isEqualTo(DeltaSync.DELTA);
+		sender.a = 4;
+		assertThat(sync(sender, receiver).readableBuffer().get(0)).isEqualTo(DeltaSync.FULL);
+
+		deltaSync.invalidate(sender);
+		sender.a = 5;
+		assertThat(sync(sender, receiver).readableBuffer().get(0)).isEqualTo(DeltaSync.FULL);
+		assertThat(receiver.a).isEqualTo(5);
+	}
+
+	@Test
+	public void testRequestFullSync() {
+		List<Integer> requests = new ArrayList<>();
+		deltaSync = new DeltaSync((id, syncable) -> requests.add(id)).setEnabled(true);
+		Fields sender = new Fields();
+		Fields watcher = new Fields();
+		Fields newWatcher = new Fields();
+		sender.name = "first";
+		sync(sender, watcher);
+
+		//Starts watching after the full sync
+		sender.a = 1;
+		ByteBufferPacket delta = sync(sender, newWatcher);
+		assertThat(delta.readableBuffer().get(0)).isEqualTo(DeltaSync.DELTA);
+		assertThat(newWatcher.a).isEqualTo(1);
+		assertThat(requests).containsExactly(-1);
+
+		//Only requests once
+		sender.a = 2;
+		sync(sender, newWatcher);
+		assertThat(requests).containsExactly(-1);
+
+		//The request only makes the sender sync fully again
+		ByteBufferPacket request = pool.acquire();
+		request.setID(-1);
+		deltaSync.write(newWatcher, request);
+		assertThat(request.readableBytes()).isEqualTo(1);
+		deltaSync.read(sender, request);
+		assertThat(requests).containsExactly(-1, 0);
+
+		assertThat(sync(sender, newWatcher).readableBuffer().get(0)).isEqualTo(DeltaSync.FULL);
+		assertThat(newWatcher.name).isEqualTo("first");
+		sender.b = 3;
+		assertThat(sync(sender, newWatcher).readableBuffer().get(0)).isEqualTo(DeltaSync.DELTA);
+		assertThat(newWatcher.b).isEqualTo(3);
+		assertThat(requests).containsExactly(-1, 0);
+	}
+
+	@Test
+	public void testMissedDelta() {
+		List<Integer> requests = new ArrayList<>();
+		deltaSync = new DeltaSync((id, syncable) -> requests.add(id)).setEnabled(true);
+		Fields sender = new Fields();
+		Fields receiver = new Fields();
+		sync(sender, receiver);
+
+		sender.a = 1;
+		ByteBufferPacket lost = pool.acquire();
+		deltaSync.write(sender, lost);
+		sender.b = 2;
+		sync(sender, receiver);
+		assertThat(requests).containsExactly(-1);
+	}
+
+	@Test
+	public void testManyFields() {
+		ManyFields sender = new ManyFields();
+		ManyFields receiver = new ManyFields();
+		sync(sender, receiver);
+
+		sender.f64 = 64;
+		assertThat(sync(sender, receiver).readableBuffer().get(0)).isEqualTo(DeltaSync.FULL);
+		assertThat(receiver.f64).isEqualTo(64);
+	}
+
+	@Test
+	public void testCustomReadWrite() {
+		Custom sender = new Custom();
+		Custom receiver = new Custom();
+		sender.value = 7;
+		sync(sender, receiver);
+
+		sender.value = 8;
+		assertThat(sync(sender, receiver).readableBuffer().get(0)).isEqualTo(DeltaSync.FULL);
+		assertThat(receiver.value).isEqualTo(8);
+	}
+
+	@Test
+	public void testDisabled() {
+		deltaSync.setEnabled(false);
+		Fields sender = new Fields();
+		Fields receiver = new Fields();
+		sync(sender, receiver);
+
+		sender.a = 1;
+		assertThat(sync(sender, receiver).readableBuffer().get(0)).isEqualTo(DeltaSync.FULL);
+		assertThat(receiver.a).isEqualTo(1);
+	}
+
+	/**
+	 * Writes the sender and reads it into the receiver.
+	 * @return The packet, with everything read
+	 */
+	private ByteBufferPacket sync(Syncable sender, Syncable receiver) {
+		ByteBufferPacket packet = pool.acquire();
+		deltaSync.write(sender, packet);
+		ByteBufferPacket written = pool.acquire();
+		written.writeBytes(packet.readableBuffer());
+		deltaSync.read(receiver, packet);
+		assertThat(packet.readableBytes()).isEqualTo(0);
+		return written;
+	}
+
+	public static class Fields implements Syncable {
+		@Sync
+		int a;
+		@Sync
+		int b;
+		@Sync
+		int c;
+		@Sync
+		String name = "";
+	}
+
+	public static class ManyFields implements Syncable {
+		@Sync
+		int f0, f1, f2, f3, f4, f5, f6, f7, f8, f9, f10, f11, f12, f13, f14, f15, f16, f17, f18, f19, f20, f21, f22, f23, f24, f25, f26, f27, f28, f29, f30, f31, f32, f33, f34, f35, f36, f37, f38, f39, f40, f41, f42, f43, f44, f45, f46, f47, f48, f49, f50, f51, f52, f53, f54, f55, f56, f57, f58, f59, f60, f61, f62, f63, f64;
+	}
+
+	public static class Custom implements Syncable {
+		int value;
+
+		@Override
+		public void read(Packet packet) {
+			value = packet.readInt();
+		}
+
+		@Override
+		public void write(Packet packet) {
+			packet.writeInt(value);
+		}
+	}
+}
@@ -0,0 +1,352 @@
+package nova.core.network;
+
+import nova.core.entity.component.Player;
+import nova.core.network.handler.PacketHandler;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static nova.testutils.NovaAssertions.assertThat;
+
+public class SyncBatchTest {
+
+	LoopbackNetworkManager network;
+	List<String> received;
+
+	@Before
+	public void setUp() {
+		network = new LoopbackNetworkManager();
+		received = new ArrayList<>();
+		network.register(new SenderPacket());
+		network.setBatching(true);
+	}
+
+	@Test
+	public void testCoalescing() {
+		Sender a = new Sender("a");
+		Sender b = new Sender("b");
+		List<int[]> flushes = new ArrayList<>();
+		network.setFlushListener((size, coalesced, nanos) -> flushes.add(new int[] { size, coalesced }));
+
+		network.sync(a);
+		network.sync(b);
+		a.value = 5;
+		network.sync(a);
+		network.sync(1, a);
+
+		assertThat(network.scheduled).isEqualTo(1);
+		assertThat(network.sent).isEmpty();
+
+		network.flush();
+
+		assertThat(network.sent).hasSize(1);
+		network.receive(network.sent.get(0));
+		assertThat(received).containsExactly("a:0=5", "b:0=0", "a:1=5");
+		assertThat(flushes).hasSize(1);
+		assertThat(flushes.get(0)).containsExactly(3, 1);
+	}
+
+	@Test
+	public void testEmptyFlush() {
+		network.flush();
+		assertThat(network.sent).isEmpty();
+	}
+
+	@Test
+	public void testSingleSync() {
+		network.sync(new Sender("a"));
+		network.flush();
+		network.receive(network.sent.get(0));
+		assertThat(received).containsExactly("a:0=0");
+
+		network.sync(new Sender("b"));
+		assertThat(network.scheduled).isEqualTo(2);
+	}
+
+	@Test
+	public void testBrokenSync() {
+		network.register(new BrokenPacket());
+		network.sync(new Sender("a"));
+		network.sync(new Broken(false));
+		network.sync(new Broken(true));
+		network.sync(new Sender("b"));
+		network.flush();
+
+		network.receive(network.sent.get(0));
+		assertThat(received).containsExactly("a:0=0", "b:0=0");
+	}
+
+	static class Sender {
+		final String name;
+		int value;
+
+		Sender(String name) {
+			this.name = name;
+		}
+	}
+
+	class SenderPacket implements PacketHandler<Sender> {
+		@Override
+		public void read(Packet packet) {
+			received.add(packet.readString() + ":" + packet.getID() + "=" + packet.readInt());
+		}
+
+		@Override
+		public void write(Sender sender, Packet packet) {
+			packet.writeString(sender.name);
+			packet.writeInt(sender.value);
+		}
+
+		@Override
+		public boolean isHandlerFor(Object handler) {
+			return handler instanceof Sender;
+		}
+	}
+
+	static class Broken {
+		final boolean throwing;
+
+		Broken(boolean throwing) {
+			this.throwing = throwing;
+		}
+	}
+
+	/**
+	 * Writes a payload it does not read back, or fails to read it.
+	 */
+	static class BrokenPacket implements PacketHandler<Broken> {
+		@Override
+		public void read(Packet packet) {
+			if (packet.readBoolean()) {
+				throw new NetworkException("Broken");
+			}
+		}
+
+		@Override
+		public void write(Broken broken, Packet packet) {
+			packet.writeBoolean(broken.throwing);
+			packet.writeString("unread");
+			packet.writeInt(42);
+		}
+
+		@Override
+		public boolean isHandlerFor(Object handler) {
+			return handler instanceof Broken;
+		}
+	}
+
+	@Test
+	public void testSentPacketsNotReleased() {
+		PacketPool pool = new PacketPool();
+		List<Packet> transport = new ArrayList<>();
+		NetworkManager pooled = new NetworkManager() {
+			@Override
+			public Packet newPacket() {
+				return pool.acquire();
+			}
+
+			@Override
+			public void sendPacket(Packet packet) {
+				transport.add(packet);
+			}
+
+			@Override
+			public void sendChat(Player player, String message) {
+
+			}
+
+			@Override
+			public boolean isServer() {
+				return true;
+			}
+		};
+		pooled.register(new SenderPacket());
+		Sender a = new Sender("a");
+		a.value = 7;
+		pooled.sync(a);
+
+		assertThat(pool.size()).isEqualTo(0);
+		Packet sent = transport.get(0);
+		pooled.getPacketType(sent.readInt()).read(sent.setID(sent.readInt()));
+		assertThat(received).containsExactly("a:0=7");
+		pooled.release(sent);
+		assertThat(pool.size()).isEqualTo(1);
+	}
+
+	/**
+	 * Sends packets to itself.
+	 */
+	static class LoopbackNetworkManager extends NetworkManager {
+		final List<QueuePacket> sent = new ArrayList<>();
+		int scheduled;
+
+		void receive(QueuePacket packet) {
+			getPacketType(packet.readInt()).read(packet.setID(packet.readInt()));
+		}
+
+		@Override
+		protected void scheduleFlush() {
+			scheduled++;
+		}
+
+		@Override
+		public QueuePacket newPacket() {
+			return new QueuePacket();
+		}
+
+		@Override
+		public void sendPacket(Packet packet) {
+			sent.add((QueuePacket) packet);
+		}
+
+		@Override
+		public void sendChat(Player player, String message) {
+
+		}
+
+		@Override
+		public boolean isServer() {
+			return true;
+		}
+	}
+
+	static class QueuePacket implements Packet {
+		final Deque<Object> queue = new ArrayDeque<>();
+		int id;
+
+		@Override
+		public int getID() {
+			return id;
+		}
+
+		@Override
+		public QueuePacket setID(int id) {
+			this.id = id;
+			return this;
+		}
+
+		@Override
+		public Player player() {
+			return null;
+		}
+
+		private Packet add(Object value) {
+			queue.add(value);
+			return this;
+		}
+
+		@Override
+		public Packet writeBoolean(boolean value) {
+			return add(value);
+		}
+
+		@Override
+		public Packet writeByte(int value) {
+			return add((byte) value);
+		}
+
+		@Override
+		public Packet writeShort(int value) {
+			return add((short) value);
+		}
+
+		@Override
+		public Packet writeInt(int value) {
+			return add(value);
+		}
+
+		@Override
+		public Packet writeLong(long value) {
+			return add(value);
+		}
+
+		@Override
+		public Packet writeChar(int value) {
+			return add((char) value);
+		}
+
+		@Override
+		public Packet writeFloat(float value) {
+			return add(value);
+		}
+
+		@Override
+		public Packet writeDouble(double value) {
+			return add(value);
+		}
+
+		@Override
+		public Packet writeString(String value) {
+			return add(value);
+		}
+
+		@Override
+		public Packet writeBytes(byte[] array) {
+			return add(array);
+		}
+
+		@Override
+		public byte[] readBytes(int length) {
+			return (byte[]) queue.poll();
+		}
+
+		@Override
+		public boolean readBoolean() {
+			return (boolean) queue.poll();
+		}
+
+		@Override
+		public byte readByte() {
+			return (byte) queue.poll();
+		}
+
+		@Override
+		public short readUnsignedByte() {
+			return (short) (readByte() & 0xFF);
+		}
+
+		@Override
+		public short readShort() {
+			return (short) queue.poll();
+		}
+
+		@Override
+		public int readInt() {
+			return (int) queue.poll();
+		}
+
+		@Override
+		public long readUnsignedInt() {
+			return readInt() & 0xFFFFFFFFL;
+		}
+
+		@Override
+		public long readLong() {
+			return (long) queue.poll();
+		}
+
+		@Override
+		public char readChar() {
+			return (char) queue.poll();
+		}
+
+		@Override
+		public float readFloat() {
+			return (float) queue.poll();
+		}
+
+		@Override
+		public double readDouble() {
+			return (double) queue.poll();
+		}
+
+		@Override
+		public String readString() {
+			return (String) queue.poll();
+		}
+	}
+}
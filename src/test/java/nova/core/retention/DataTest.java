@@ -0,0 +1,159 @@
+package nova.core.retention;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import static nova.testutils.NovaAssertions.assertThat;
+
+public class DataTest {
+
+	@Test
+	public void testTypedValues() {
+		Data data = new Data();
+		data.putInt("int", 256);
+		data.putLong("long", 1L << 40);
+		data.putDouble("double", 1.5);
+		data.putBoolean("boolean", true);
+		data.putVector3D("vector", new Vector3D(1, 2, 3));
+
+		assertThat(data.getInt("int")).isEqualTo(256);
+		assertThat(data.getLong("long")).isEqualTo(1L << 40);
+		assertThat(data.getDouble("double")).isEqualTo(1.5);
+		assertThat(data.getBoolean("boolean")).isTrue();
+		assertThat(data.getVector3D("vector")).isEqualTo(new Vector3D(1, 2, 3));
+		assertThat(data.size()).isEqualTo(5);
+	}
+
+	@Test
+	public void testMapView() {
+		Data data = new Data();
+		data.putInt("int", 256);
+		data.putVector3D("vector", new Vector3D(1, 2, 3));
+		data.put("string", "test");
+
+		Data boxed = new Data();
+		boxed.put("int", 256);
+		boxed.put("vector", new Vector3D(1, 2, 3));
+		boxed.put("string", "test");
+
+		assertThat(data.<Integer>get("int")).isEqualTo(256);
+		assertThat(data).isEqualTo(boxed);
+
+		data.put("int", "replaced");
+		assertThat(data.<String>get("int")).isEqualTo("replaced");
+		assertThat(data.size()).isEqualTo(3);
+	}
+
+	@Test
+	public void testLiveViews() {
+		Data data = new Data();
+		Set<String> keys = data.keySet();
+		Collection<Object> values = data.values();
+		Set<Map.Entry<String, Object>> entries = data.entrySet();
+
+		data.putInt("int", 256);
+		data.putDouble("double", 1.5);
+
+		assertThat(keys).containsOnly("int", "double");
+		assertThat(values).containsOnly(256, 1.5);
+		assertThat(entries).hasSize(2);
+
+		//Reading does not change how values are stored
+		data.forEach((key, value) -> {
+		});
+		assertThat(data.containsValue(256)).isTrue();
+		data.putInt("int", 512);
+		assertThat(values).containsOnly(512, 1.5);
+
+		for (Map.Entry<String, Object> entry : entries) {
+			if (entry.getKey().equals("double")) {
+				entry.setValue("replaced");
+			}
+		}
+		assertThat(data.<String>get("double")).isEqualTo("replaced");
+	}
+
+	@Test
+	public void testPutAllClassName() {
+		Data source = new Data(Vector3D.class);
+		source.putDouble("x", 1);
+
+		Data data = new Data();
+		data.putAll(source);
+
+		assertThat(data.className).isEqualTo(Vector3D.class.getName());
+		assertThat(data.getDouble("x")).isEqualTo(1.0);
+	}
+
+	@Test
+	public void testRemoveThroughViews() {
+		Data data = new Data();
+		data.put("string", "test");
+		for (int i = 0; i < 10; i++) {
+			data.putInt("int" + i, i);
+		}
+
+		Iterator<Map.Entry<String, Object>> entries = data.entrySet().iterator();
+		int visited = 0;
+		while (entries.hasNext()) {
+			Map.Entry<String, Object> entry = entries.next();
+			visited++;
+			if (entry.getValue() instanceof Integer && (Integer) entry.getValue() % 2 == 0) {
+				entries.remove();
+			}
+		}
+		assertThat(visited).isEqualTo(11);
+		assertThat(data.keySet()).containsOnly("string", "int1", "int3", "int5", "int7", "int9");
+
+		assertThat(data.keySet().remove("int3")).isTrue();
+		assertThat(data.remove("int5")).isEqualTo(5);
+		assertThat(data.getInt("int9")).isEqualTo(9);
+		assertThat(data.size()).isEqualTo(4);
+	}
+
+	@Test
+	public void testClone() {
+		Data data = new Data();
+		data.putInt("int", 256);
+		data.putVector3D("vector", 1, 2, 3);
+		data.put("string", "test");
+
+		Data clone = (Data) data.clone();
+		data.putInt("int", 512);
+
+		assertThat(clone.getInt("int")).isEqualTo(256);
+		assertThat(clone.getVector3D("vector")).isEqualTo(new Vector3D(1, 2, 3));
+		assertThat(clone.size()).isEqualTo(3);
+	}
+
+	@Test
+	public void testJavaSerialization() throws IOException, ClassNotFoundException {
+		Data data = new Data();
+		data.putInt("int", 256);
+		data.putVector3D("vector", 1, 2, 3);
+		data.put("string", "test");
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(data);
+		}
+		Data read;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			read = (Data) in.readObject();
+		}
+
+		assertThat(read.getInt("int")).isEqualTo(256);
+		assertThat(read.getVector3D("vector")).isEqualTo(new Vector3D(1, 2, 3));
+		assertThat(read).isEqualTo(data);
+	}
+}
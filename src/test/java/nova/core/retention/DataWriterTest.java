@@ -0,0 +1,56 @@
+package nova.core.retention;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import static nova.testutils.NovaAssertions.assertThat;
+
+public class DataWriterTest {
+
+	enum TestEnum {
+		A,
+		B
+	}
+
+	@Test
+	public void testRoundTrip() {
+		Data data = new Data();
+		data.put("int", 256);
+		data.put("short", (short) 2);
+		data.put("char", 'c');
+		data.put("double", 1.5d);
+		data.put("string", "test");
+		data.put("enum", TestEnum.B);
+		data.put("vector", new Vector3D(1, 2, 3));
+		data.put("list", Arrays.asList(1, 2, 3));
+
+		Data read = DataReader.fromBytes(DataWriter.toBytes(data));
+
+		assertThat(read).isEqualTo(data);
+		assertThat(read.<Short>get("short")).isEqualTo((short) 2);
+		assertThat(read.<TestEnum>getEnum("enum")).isEqualTo(TestEnum.B);
+		assertThat(read.getVector3D("vector")).isEqualTo(new Vector3D(1, 2, 3));
+	}
+
+	@Test
+	public void testSharedStream() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (DataWriter writer = new DataWriter(out)) {
+			for (int i = 0; i < 3; i++) {
+				Data data = new Data();
+				data.put("value", i);
+				writer.write(data);
+			}
+		}
+
+		try (DataReader reader = new DataReader(new ByteArrayInputStream(out.toByteArray()))) {
+			for (int i = 0; i < 3; i++) {
+				assertThat(reader.read().<Integer>get("value")).isEqualTo(i);
+			}
+		}
+	}
+}
@@ -99,4 +99,35 @@ public class StorableTest {
         assertThat(test.integer).isEqualTo(256);
         assertThat(test.string).isEqualTo("test");
     }
+
+    public static class StaticTestCase implements Storable {
+        @Store
+        private static int counter = 0;
+
+        @Store
+        private static final String NAME = "static";
+
+        @Store
+        private int value = 0;
+    }
+
+    @Test
+    public void testStaticStorable() {
+        StaticTestCase test = new StaticTestCase();
+        StaticTestCase.counter = 5;
+        test.value = 7;
+
+        Data data = new Data();
+        test.save(data);
+        assertThat(data.<Integer>get("counter")).isEqualTo(5);
+        assertThat(data.<String>get("NAME")).isEqualTo("static");
+
+        StaticTestCase.counter = 0;
+        test = new StaticTestCase();
+        data.remove("NAME");
+        test.load(data);
+
+        assertThat(StaticTestCase.counter).isEqualTo(5);
+        assertThat(test.value).isEqualTo(7);
+    }
 }
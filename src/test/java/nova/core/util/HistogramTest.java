@@ -0,0 +1,49 @@
+package nova.core.util;
+
+import org.junit.Test;
+
+import static nova.testutils.NovaAssertions.assertThat;
+
+public class HistogramTest {
+
+	@Test
+	public void testBuckets() {
+		for (long value : new long[] { 0, 1, 31, 32, 33, 63, 64, 1000, 123456789, Long.MAX_VALUE }) {
+			int bucket = Histogram.bucket(value);
+			assertThat(Histogram.highestValue(bucket)).isGreaterThanOrEqualTo(value);
+			if (bucket > 0) {
+				assertThat(Histogram.highestValue(bucket - 1)).isLessThan(value);
+			}
+		}
+	}
+
+	@Test
+	public void testPercentiles() {
+		Histogram histogram = new Histogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000L);
+		}
+
+		assertThat(histogram.count()).isEqualTo(1000);
+		assertThat(histogram.max()).isEqualTo(1_000_000L);
+		assertThat(histogram.mean()).isEqualTo(500_500d);
+		assertThat(histogram.percentile(50)).isBetween(500_000L, 520_000L);
+		assertThat(histogram.percentile(99)).isBetween(990_000L, 1_000_000L);
+		assertThat(histogram.percentile(100)).isEqualTo(1_000_000L);
+
+		histogram.reset();
+		assertThat(histogram.count()).isEqualTo(0);
+		assertThat(histogram.percentile(99)).isEqualTo(0);
+	}
+
+	@Test
+	public void testExtremes() {
+		Histogram histogram = new Histogram();
+		histogram.record(-5);
+		histogram.record(Long.MAX_VALUE);
+
+		assertThat(histogram.count()).isEqualTo(2);
+		assertThat(histogram.percentile(50)).isEqualTo(0L);
+		assertThat(histogram.percentile(100)).isEqualTo(Long.MAX_VALUE);
+	}
+}
@@ -19,6 +19,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static nova.testutils.NovaAssertions.assertThat;
@@ -87,6 +88,29 @@ public class RayTraceTest {
 		assertThat(rayTraceBlockResult.hit).isEqualTo(new Vector3D(5, 7.5, 3.5));
 	}
 
+	@Test
+	public void testRayTraceFirstBlock() {
+		for (int i = -200; i < -2; i++) {
+			fakeWorld.setBlock(new Vector3D(i, 0, 0), RayTraceMod.solid);
+		}
+
+		Optional<RayTracer.RayTraceBlockResult> first =
+			new RayTracer(new Ray(new Vector3D(0.5, 0.5, 0.5), new Vector3D(-1, 0, 0)))
+				.setDistance(300)
+				.rayTraceBlocks(fakeWorld)
+				.findFirst();
+
+		assertThat(first.isPresent()).isTrue();
+		assertThat(first.get().block.position()).isEqualTo(new Vector3D(-3, 0, 0));
+		assertThat(first.get().hit).isEqualTo(new Vector3D(-2, 0.5, 0.5));
+
+		long hits = new RayTracer(new Ray(new Vector3D(0.5, 0.5, 0.5), new Vector3D(-1, 0, 0)))
+			.setDistance(10)
+			.rayTraceBlocks(fakeWorld)
+			.count();
+		assertThat(hits).isEqualTo(8L);
+	}
+
 	@Test
 	public void testRayTraceEntity() {
 		fakeWorld.setBlock(new Vector3D(5, 5, 5), RayTraceMod.solid);
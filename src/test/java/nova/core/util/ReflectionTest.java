@@ -3,6 +3,8 @@ package nova.core.util;
 import static org.assertj.core.api.Assertions.*;
 import static nova.core.util.ReflectionUtil.*;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.lang.reflect.Constructor;
 
 import org.junit.Test;
@@ -79,4 +81,30 @@ public class ReflectionTest {
 			.isEqualTo(con_DDD);
 		assertThat(newInstanceMatching(constr, Double.valueOf(1), Double.valueOf(1), Double.valueOf(1))).isNotNull();
 	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Marked {
+	}
+
+	static class Parent {
+		@Marked
+		private int a;
+	}
+
+	static class Child extends Parent {
+		@Marked
+		private int b;
+
+		private int c;
+	}
+
+	@Test
+	public void testAnnotatedFields() {
+		assertThat(getRecursiveAnnotatedFields(Marked.class, Child.class))
+			.extracting(field -> field.field.getName())
+			.containsExactly("b", "a");
+		assertThat(getRecursiveAnnotatedFields(Marked.class, Child.class))
+			.isSameAs(getRecursiveAnnotatedFields(Marked.class, Child.class));
+		assertThat(getRecursiveAnnotatedFields(Marked.class, Child.class).get(0).field.isAccessible()).isTrue();
+	}
 }
@@ -0,0 +1,109 @@
+package nova.core.util;
+
+import nova.core.util.SectionProfiler.Mode;
+import nova.core.util.SectionProfiler.Section;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static nova.testutils.NovaAssertions.assertThat;
+
+public class SectionProfilerTest {
+
+	@Before
+	public void setUp() {
+		SectionProfiler.reset();
+	}
+
+	@After
+	public void tearDown() {
+		SectionProfiler.setMode(Mode.OFF);
+		SectionProfiler.reset();
+	}
+
+	@Test
+	public void testOff() {
+		SectionProfiler.setMode(Mode.OFF);
+		SectionProfiler.start("a");
+		assertThat(SectionProfiler.current()).isNull();
+		SectionProfiler.end();
+
+		assertThat(SectionProfiler.root().children()).isEmpty();
+	}
+
+	@Test
+	public void testNesting() {
+		SectionProfiler.setMode(Mode.FULL);
+		for (int i = 0; i < 3; i++) {
+			SectionProfiler.start("a");
+			SectionProfiler.start("b");
+			spin(100_000);
+			SectionProfiler.end();
+			SectionProfiler.start("c");
+			SectionProfiler.end();
+			SectionProfiler.end();
+		}
+
+		Section a = SectionProfiler.root().get("a");
+		Section b = a.get("b");
+		assertThat(a.children()).hasSize(2);
+		assertThat(a.times().count()).isEqualTo(3L);
+		assertThat(b.times().count()).isEqualTo(3L);
+		assertThat(b.totalTime()).isGreaterThanOrEqualTo(300_000L);
+		assertThat(a.totalTime()).isGreaterThanOrEqualTo(b.totalTime());
+		assertThat(b.toString()).isEqualTo("a > b");
+		assertThat(SectionProfiler.current()).isNull();
+	}
+
+	@Test
+	public void testSampled() {
+		SectionProfiler.setMode(Mode.SAMPLED);
+		SectionProfiler.setSampleRate(4);
+		for (int i = 0; i < 20; i++) {
+			SectionProfiler.start("a");
+			SectionProfiler.start("b");
+			SectionProfiler.end();
+			SectionProfiler.end();
+		}
+
+		assertThat(SectionProfiler.root().get("a").times().count()).isEqualTo(5L);
+		assertThat(SectionProfiler.root().get("a", "b").times().count()).isEqualTo(5L);
+	}
+
+	@Test
+	public void testOtherThread() throws InterruptedException {
+		SectionProfiler.setMode(Mode.FULL);
+		SectionProfiler.start("a");
+		Section parent = SectionProfiler.current();
+		Thread thread = new Thread(() -> {
+			SectionProfiler.start(parent, "worker");
+			SectionProfiler.start("job");
+			SectionProfiler.end();
+			SectionProfiler.end();
+		});
+		thread.start();
+		thread.join();
+		SectionProfiler.end();
+
+		assertThat(SectionProfiler.root().get("a", "worker", "job").times().count()).isEqualTo(1L);
+	}
+
+	@Test
+	public void testDumpCollapsed() {
+		SectionProfiler.setMode(Mode.FULL);
+		SectionProfiler.start("a");
+		SectionProfiler.start("b");
+		spin(2_000_000);
+		SectionProfiler.end();
+		SectionProfiler.end();
+
+		assertThat(SectionProfiler.dumpCollapsed()).contains("a;b ");
+	}
+
+	private static void spin(long nanos) {
+		long end = System.nanoTime() + nanos;
+		while (System.nanoTime() < end) {
+			Thread.yield();
+		}
+	}
+}
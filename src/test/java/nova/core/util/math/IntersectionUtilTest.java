@@ -0,0 +1,41 @@
+package nova.core.util.math;
+
+import nova.core.util.Ray;
+import nova.core.util.shape.MutableCuboid;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.Test;
+
+import static nova.testutils.NovaAssertions.assertThat;
+
+public class IntersectionUtilTest {
+
+	@Test
+	public void testRayBox() {
+		MutableCuboid box = new MutableCuboid(2, 0, 0, 3, 1, 1);
+		assertThat(box.rayTrace(new Ray(new Vector3D(0, 0.5, 0.5), new Vector3D(1, 0, 0)), 0, 10)).isEqualTo(2d);
+		assertThat(box.rayTrace(new Ray(new Vector3D(5, 0.5, 0.5), new Vector3D(-1, 0, 0)), 0, 10)).isEqualTo(2d);
+		assertThat(box.rayTrace(new Ray(new Vector3D(2.5, 0.5, 0.5), new Vector3D(1, 0, 0)), 0, 10)).isEqualTo(-0.5d);
+
+		assertThat(Double.isNaN(box.rayTrace(new Ray(new Vector3D(0, 0.5, 0.5), new Vector3D(1, 0, 0)), 0, 1.5))).isTrue();
+		assertThat(Double.isNaN(box.rayTrace(new Ray(new Vector3D(0, 2, 0.5), new Vector3D(1, 0, 0)), 0, 10))).isTrue();
+		assertThat(Double.isNaN(box.rayTrace(new Ray(new Vector3D(0, 0.5, 0.5), new Vector3D(-1, 0, 0)), 0, 10))).isTrue();
+	}
+
+	@Test
+	public void testOverlapsAndDistance() {
+		assertThat(IntersectionUtil.overlaps(0, 0, 0, 1, 1, 1, 1, 1, 1, 2, 2, 2)).isTrue();
+		assertThat(IntersectionUtil.overlaps(0, 0, 0, 1, 1, 1, 1.5, 0, 0, 2, 1, 1)).isFalse();
+		assertThat(IntersectionUtil.distanceSq(0.5, 0.5, 0.5, 0, 0, 0, 1, 1, 1)).isEqualTo(0d);
+		assertThat(IntersectionUtil.distanceSq(3, 0.5, 3, 0, 0, 0, 1, 1, 1)).isEqualTo(8d);
+	}
+
+	@Test
+	public void testMutableCuboid() {
+		MutableCuboid box = new MutableCuboid(0, 0, 0, 1, 1, 1).offset(1, 2, 3).expand(0.5);
+		assertThat(box.toCuboid().min).isEqualTo(new Vector3D(0.5, 1.5, 2.5));
+		assertThat(box.toCuboid().max).isEqualTo(new Vector3D(2.5, 3.5, 4.5));
+		assertThat(box.contains(2.5, 3, 4)).isTrue();
+		assertThat(box.intersects(new MutableCuboid(2.5, 3.5, 4.5, 5, 5, 5))).isTrue();
+		assertThat(box.intersects(new MutableCuboid(3, 3, 4, 5, 5, 5))).isFalse();
+	}
+}
@@ -0,0 +1,140 @@
+package nova.core.util.shape;
+
+import nova.core.util.Ray;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static nova.testutils.NovaAssertions.assertThat;
+
+public class AABBTreeTest {
+
+	Random random;
+	AABBTree<Integer> tree;
+	List<Cuboid> boxes;
+	List<Integer> ids;
+
+	@Before
+	public void setUp() {
+		random = new Random(42);
+		tree = new AABBTree<>(0.5);
+		boxes = new ArrayList<>();
+		ids = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			boxes.add(randomBox());
+			ids.add(tree.add(i, boxes.get(i)));
+		}
+	}
+
+	@Test
+	public void testBalanced() {
+		tree.validate();
+		assertThat(tree.size()).isEqualTo(500);
+		assertThat(tree.height()).isLessThan(20);
+	}
+
+	@Test
+	public void testQuery() {
+		for (int i = 0; i < 50; i++) {
+			Cuboid area = randomBox().expand(10);
+			assertThat(query(area)).isEqualTo(bruteForce(area));
+		}
+	}
+
+	@Test
+	public void testMoveAndRemove() {
+		for (int i = 0; i < 500; i++) {
+			Cuboid box = random.nextBoolean() ? boxes.get(i).add(new Vector3D(0.1, 0, 0)) : randomBox();
+			boxes.set(i, box);
+			tree.move(ids.get(i), box);
+		}
+		for (int i = 0; i < 250; i++) {
+			tree.remove(ids.get(i));
+			boxes.set(i, null);
+		}
+		tree.validate();
+		assertThat(tree.size()).isEqualTo(250);
+
+		for (int i = 0; i < 50; i++) {
+			Cuboid area = randomBox().expand(10);
+			assertThat(query(area)).isEqualTo(bruteForce(area));
+		}
+	}
+
+	@Test
+	public void testRayTrace() {
+		Vector3D center = boxes.get(0).center();
+		Ray ray = new Ray(new Vector3D(-100, center.getY(), center.getZ()), new Vector3D(1, 0, 0));
+		Set<Integer> hits = new HashSet<>();
+		tree.rayTrace(ray, 200, hits::add);
+
+		Set<Integer> expected = new HashSet<>();
+		for (int i = 0; i < boxes.size(); i++) {
+			Cuboid box = boxes.get(i);
+			if (box.min.getY() <= center.getY() && box.max.getY() >= center.getY()
+				&& box.min.getZ() <= center.getZ() && box.max.getZ() >= center.getZ() && box.min.getX() <= 100) {
+				expected.add(i);
+			}
+		}
+		assertThat(hits).contains(0);
+		assertThat(hits).isEqualTo(expected);
+	}
+
+	@Test
+	public void testNearest() {
+		Vector3D point = new Vector3D(3, -7, 12);
+		List<Integer> nearest = tree.nearest(point, 10);
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < boxes.size(); i++) {
+			expected.add(i);
+		}
+		expected.sort(Comparator.comparingDouble(i -> distanceSq(boxes.get(i), point)));
+
+		assertThat(nearest).containsExactly(expected.subList(0, 10).toArray(new Integer[10]));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRemoveTwice() {
+		tree.remove(ids.get(0));
+		tree.remove(ids.get(0));
+	}
+
+	private Set<Integer> query(Cuboid area) {
+		Set<Integer> found = new HashSet<>();
+		tree.query(area, found::add);
+		return found;
+	}
+
+	private Set<Integer> bruteForce(Cuboid area) {
+		Set<Integer> found = new HashSet<>();
+		for (int i = 0; i < boxes.size(); i++) {
+			Cuboid box = boxes.get(i);
+			if (box != null && box.min.getX() <= area.max.getX() && box.max.getX() >= area.min.getX()
+				&& box.min.getY() <= area.max.getY() && box.max.getY() >= area.min.getY()
+				&& box.min.getZ() <= area.max.getZ() && box.max.getZ() >= area.min.getZ()) {
+				found.add(i);
+			}
+		}
+		return found;
+	}
+
+	private Cuboid randomBox() {
+		Vector3D min = new Vector3D(random.nextDouble() * 200 - 100, random.nextDouble() * 200 - 100, random.nextDouble() * 200 - 100);
+		return new Cuboid(min, min.add(new Vector3D(random.nextDouble() * 5, random.nextDouble() * 5, random.nextDouble() * 5)));
+	}
+
+	private static double distanceSq(Cuboid box, Vector3D point) {
+		double dx = Math.max(Math.max(box.min.getX() - point.getX(), point.getX() - box.max.getX()), 0);
+		double dy = Math.max(Math.max(box.min.getY() - point.getY(), point.getY() - box.max.getY()), 0);
+		double dz = Math.max(Math.max(box.min.getZ() - point.getZ(), point.getZ() - box.max.getZ()), 0);
+		return dx * dx + dy * dy + dz * dz;
+	}
+}
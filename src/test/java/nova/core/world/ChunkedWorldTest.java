@@ -0,0 +1,239 @@
+package nova.core.world;
+
+import nova.core.block.Block;
+import nova.core.block.BlockFactory;
+import nova.core.block.Stateful;
+import nova.core.component.misc.Collider;
+import nova.core.component.transform.BlockTransform;
+import nova.core.component.transform.WorldTransform;
+import nova.core.entity.Entity;
+import nova.core.entity.EntityFactory;
+import nova.core.item.Item;
+import nova.core.util.shape.Cuboid;
+import nova.testutils.FakeBlock;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static nova.testutils.NovaAssertions.assertThat;
+
+public class ChunkedWorldTest {
+
+	BlockFactory air;
+	BlockFactory stone;
+	ChunkedWorld world;
+
+	@Before
+	public void setUp() {
+		air = new BlockFactory(args -> new FakeBlock("air"));
+		stone = new BlockFactory(args -> new FakeBlock("stone"));
+		world = new ChunkedWorld("test", air);
+	}
+
+	@Test
+	public void testAir() {
+		Block block = world.getBlock(3, -70, 12).get();
+		assertThat(block.getID()).isEqualTo("air");
+		assertThat(block.position()).isEqualTo(new Vector3D(3, -70, 12));
+		assertThat(block.world()).isSameAs(world);
+		assertThat(world.getSectionCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testSetBlock() {
+		assertThat(world.setBlock(-1, 0, 17, stone)).isTrue();
+		assertThat(world.setBlock(new Vector3D(5.5, 64.2, -3.7), stone)).isTrue();
+
+		assertThat(world.getBlockFactory(-1, 0, 17).get()).isSameAs(stone);
+		assertThat(world.getBlock(new Vector3D(5, 64, -4)).get().getID()).isEqualTo("stone");
+		assertThat(world.getBlock(0, 0, 17).get().getID()).isEqualTo("air");
+		assertThat(world.getSectionCount()).isEqualTo(2);
+
+		world.removeBlock(new Vector3D(-1, 0, 17));
+		world.setBlock(5, 64, -4, air);
+		assertThat(world.getBlockFactory(-1, 0, 17).get()).isSameAs(air);
+		assertThat(world.getSectionCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testPalette() {
+		List<BlockFactory> factories = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			String id = "block" + i;
+			factories.add(new BlockFactory(args -> new FakeBlock(id)));
+		}
+
+		for (int i = 0; i < ChunkedWorld.SECTION_SIZE * ChunkedWorld.SECTION_SIZE * ChunkedWorld.SECTION_SIZE; i++) {
+			world.setBlock(i & 15, i >> 8, (i >> 4) & 15, factories.get(i % factories.size()));
+		}
+		for (int i = 0; i < ChunkedWorld.SECTION_SIZE * ChunkedWorld.SECTION_SIZE * ChunkedWorld.SECTION_SIZE; i++) {
+			assertThat(world.getBlockFactory(i & 15, i >> 8, (i >> 4) & 15).get()).isSameAs(factories.get(i % factories.size()));
+		}
+		assertThat(world.getSectionCount()).isEqualTo(1);
+
+		//Unused palette entries are reused
+		for (int i = 0; i < ChunkedWorld.SECTION_SIZE * ChunkedWorld.SECTION_SIZE * ChunkedWorld.SECTION_SIZE; i++) {
+			world.setBlock(i & 15, i >> 8, (i >> 4) & 15, i % 2 == 0 ? stone : air);
+		}
+		assertThat(world.getBlockFactory(0, 0, 0).get()).isSameAs(stone);
+		assertThat(world.getBlockFactory(1, 0, 0).get()).isSameAs(air);
+	}
+
+	@Test
+	public void testStateful() {
+		List<Object> events = new ArrayList<>();
+		BlockFactory chest = new BlockFactory(args -> {
+			StatefulBlock block = new StatefulBlock();
+			block.events.on(Stateful.LoadEvent.class).bind(events::add);
+			block.events.on(Stateful.UnloadEvent.class).bind(events::add);
+			return block;
+		});
+
+		world.setBlock(1, 2, 3, chest);
+		world.setBlock(4, 5, 6, stone);
+		assertThat(events).isEmpty();
+
+		Block block = world.getBlock(1, 2, 3).get();
+		assertThat(world.getBlock(1, 2, 3).get()).isSameAs(block);
+		assertThat(world.getBlock(4, 5, 6).get()).isNotSameAs(world.getBlock(4, 5, 6).get());
+		assertThat(events).hasSize(1);
+
+		world.setBlock(1, 2, 3, stone);
+		assertThat(events).hasSize(2);
+		assertThat(events.get(1)).isInstanceOf(Stateful.UnloadEvent.class);
+	}
+
+	@Test
+	public void testArguments() {
+		BlockFactory named = new BlockFactory(args -> new FakeBlock(args.length > 0 ? (String) args[0] : "named"));
+
+		world.setBlock(0, 0, 0, named, "custom");
+		Block block = world.getBlock(0, 0, 0).get();
+		assertThat(block.getID()).isEqualTo("custom");
+		assertThat(world.getBlock(0, 0, 0).get()).isSameAs(block);
+	}
+
+	@Test
+	public void testGetBlockWith() {
+		AtomicInteger made = new AtomicInteger();
+		BlockFactory solid = new BlockFactory(args -> {
+			made.incrementAndGet();
+			FakeBlock block = new FakeBlock("solid");
+			block.add(new Collider());
+			return block;
+		});
+		world.setBlock(1, 2, 3, solid);
+		world.setBlock(1, 2, 4, stone);
+		made.set(0);
+
+		assertThat(world.getBlockWith(1, 2, 3, Collider.class).get().position()).isEqualTo(new Vector3D(1, 2, 3));
+		assertThat(world.getBlockWith(1, 2, 4, Collider.class).isPresent()).isFalse();
+		assertThat(world.getBlockWith(100, 2, 3, Collider.class).isPresent()).isFalse();
+		assertThat(world.getBlockWith(0, ChunkedWorld.LIMIT, 0, Collider.class).isPresent()).isFalse();
+		assertThat(made.get()).isEqualTo(1);
+
+		//Created blocks have their transform
+		assertThat(world.getBlockWith(1, 2, 4, BlockTransform.class).get().position()).isEqualTo(new Vector3D(1, 2, 4));
+		assertThat(world.getBlockWith(1, 2, 4, WorldTransform.class).isPresent()).isTrue();
+		assertThat(world.getBlockWith(100, 2, 3, BlockTransform.class).isPresent()).isTrue();
+	}
+
+	@Test
+	public void testConcurrentSections() throws InterruptedException {
+		//Every thread owns one block per section, so the sections keep being added and removed
+		List<Thread> threads = new ArrayList<>();
+		List<Throwable> errors = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			int offset = t;
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 2000; i++) {
+					int section = i % 40;
+					int x = section * ChunkedWorld.SECTION_SIZE + offset;
+					world.setBlock(x, 0, 0, stone);
+					if (world.getBlockFactory(x, 0, 0).get() != stone || !world.getBlock(x, 0, 0).get().getID().equals("stone")) {
+						throw new AssertionError("Lost the block at " + x);
+					}
+					world.setBlock(x, 0, 0, air);
+					if (world.getBlockFactory(x, 0, 0).get() != air) {
+						throw new AssertionError("Kept the block at " + x);
+					}
+				}
+			});
+			thread.setUncaughtExceptionHandler((th, e) -> {
+				synchronized (errors) {
+					errors.add(e);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertThat(errors).isEmpty();
+		assertThat(world.getSectionCount()).isEqualTo(0);
+
+		//Grow the table past its initial size and empty it again
+		for (int i = 0; i < 1000; i++) {
+			world.setBlock(i * ChunkedWorld.SECTION_SIZE, 0, -i * ChunkedWorld.SECTION_SIZE, stone);
+		}
+		assertThat(world.getSectionCount()).isEqualTo(1000);
+		for (int i = 0; i < 1000; i++) {
+			assertThat(world.getBlockFactory(i * ChunkedWorld.SECTION_SIZE, 0, -i * ChunkedWorld.SECTION_SIZE).get()).isSameAs(stone);
+			world.removeBlock(new Vector3D(i * ChunkedWorld.SECTION_SIZE, 0, -i * ChunkedWorld.SECTION_SIZE));
+		}
+		assertThat(world.getSectionCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testVoid() {
+		assertThat(world.getBlock(0, ChunkedWorld.LIMIT, 0).isPresent()).isFalse();
+		assertThat(world.setBlock(-ChunkedWorld.LIMIT - 1, 0, 0, stone)).isFalse();
+		assertThat(world.setBlock(-ChunkedWorld.LIMIT, 0, ChunkedWorld.LIMIT - 1, stone)).isTrue();
+		assertThat(world.getBlockFactory(-ChunkedWorld.LIMIT, 0, ChunkedWorld.LIMIT - 1).get()).isSameAs(stone);
+	}
+
+	@Test
+	public void testEntities() {
+		Entity entity = world.addEntity(new EntityFactory(args -> new Entity() {
+			@Override
+			public String getID() {
+				return "test";
+			}
+		}));
+		entity.setPosition(new Vector3D(1, 2, 3));
+
+		assertThat(entity.world()).isSameAs(world);
+		assertThat(world.entityTree().size()).isEqualTo(1);
+
+		world.removeEntity(entity);
+		assertThat(world.entityTree().isEmpty()).isTrue();
+	}
+
+	@Test
+	public void testItemEntity() {
+		Item item = new Item() {
+			@Override
+			public String getID() {
+				return "test";
+			}
+		};
+		Entity entity = world.addEntity(new Vector3D(1, 2, 3), item);
+
+		assertThat(entity).isInstanceOf(ChunkedWorld.ItemEntity.class);
+		assertThat(((ChunkedWorld.ItemEntity) entity).item).isSameAs(item);
+		assertThat(entity.position()).isEqualTo(new Vector3D(1, 2, 3));
+		assertThat(world.getEntities(new Cuboid(0, 1, 2, 2, 3, 4))).containsOnly(entity);
+	}
+
+	static class StatefulBlock extends FakeBlock implements Stateful {
+		StatefulBlock() {
+			super("chest");
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package nova.core.world;
+
+import nova.core.component.Component;
+import nova.core.entity.Entity;
+import nova.testutils.FakeWorld;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.stream.Collectors;
+
+import static nova.testutils.NovaAssertions.assertThat;
+
+public class EntityQueryTest {
+
+	FakeWorld world;
+
+	@Before
+	public void setUp() {
+		world = new FakeWorld();
+	}
+
+	@Test
+	public void testQuery() {
+		Entity a = spawn(new ComponentA());
+		Entity ab = spawn(new ComponentA(), new ComponentB());
+		Entity b = spawn(new ComponentB());
+
+		assertThat(world.query(ComponentA.class)).containsOnly(a, ab);
+		assertThat(world.query(ComponentA.class, ComponentB.class)).containsOnly(ab);
+		assertThat(world.query(Marker.class)).containsOnly(ab, b);
+		assertThat(world.query(ComponentA.class, ComponentB.class)).isSameAs(world.query(ComponentB.class, ComponentA.class));
+	}
+
+	@Test
+	public void testLiveView() {
+		EntityQuery query = world.query(ComponentA.class, ComponentB.class);
+		Entity entity = spawn(new ComponentA());
+		assertThat(query).isEmpty();
+
+		ComponentB b = entity.add(new ComponentB());
+		assertThat(query).containsOnly(entity);
+
+		entity.remove(b);
+		assertThat(query).isEmpty();
+
+		entity.add(new ComponentB());
+		assertThat(query.size()).isEqualTo(1);
+
+		world.entityIndex().remove(entity);
+		assertThat(query).isEmpty();
+		entity.remove(ComponentA.class);
+		assertThat(query).isEmpty();
+	}
+
+	@Test
+	public void testParallelStream() {
+		for (int i = 0; i < 100; i++) {
+			spawn(new ComponentA());
+			spawn(new ComponentA(), new ComponentB());
+		}
+
+		assertThat(world.query(ComponentA.class).parallelStream().collect(Collectors.toSet())).hasSize(200);
+		assertThat(world.query(ComponentB.class).stream().count()).isEqualTo(100L);
+	}
+
+	private Entity spawn(Component... components) {
+		Entity entity = new Entity() {
+			@Override
+			public String getID() {
+				return "test";
+			}
+		};
+		for (Component component : components) {
+			entity.add(component);
+		}
+		world.entityIndex().add(entity);
+		return entity;
+	}
+
+	interface Marker {
+	}
+
+	static class ComponentA extends Component {
+	}
+
+	static class ComponentB extends Component implements Marker {
+	}
+}
@@ -0,0 +1,122 @@
+package nova.core.world;
+
+import nova.core.component.misc.Collider;
+import nova.core.component.transform.EntityTransform;
+import nova.core.entity.Entity;
+import nova.core.util.Ray;
+import nova.core.util.shape.Cuboid;
+import nova.testutils.FakeWorld;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static nova.testutils.NovaAssertions.assertThat;
+
+public class EntityTreeTest {
+
+	FakeWorld world;
+
+	@Before
+	public void setUp() {
+		world = new FakeWorld();
+	}
+
+	@Test
+	public void testGetEntities() {
+		Entity a = spawn(new Vector3D(0, 0, 0));
+		Entity b = spawn(new Vector3D(10, 0, 0));
+		Entity c = spawn(new Vector3D(0, 50, 0));
+		c.add(new Collider());
+
+		assertThat(world.getEntities(new Cuboid(-1, -1, -1, 11, 1, 1))).containsOnly(a, b);
+		assertThat(world.getEntities(new Cuboid(0.5, 50.5, 0.5, 2, 52, 2))).containsOnly(c);
+		assertThat(world.entityTree().size()).isEqualTo(3);
+	}
+
+	@Test
+	public void testMove() {
+		Entity a = spawn(new Vector3D(0, 0, 0));
+		a.setPosition(new Vector3D(0.2, 0, 0));
+		assertThat(world.getEntities(new Cuboid(0.1, -1, -1, 1, 1, 1))).containsOnly(a);
+
+		a.setPosition(new Vector3D(100, 0, 0));
+		assertThat(world.getEntities(new Cuboid(-1, -1, -1, 1, 1, 1))).isEmpty();
+		assertThat(world.getEntities(new Cuboid(99, -1, -1, 101, 1, 1))).containsOnly(a);
+
+		world.removeEntity(a);
+		assertThat(world.getEntities(new Cuboid(99, -1, -1, 101, 1, 1))).isEmpty();
+		a.setPosition(new Vector3D(0, 0, 0));
+		assertThat(world.entityTree().isEmpty()).isTrue();
+	}
+
+	@Test
+	public void testMoveWithoutLock() throws InterruptedException {
+		Entity a = spawn(new Vector3D(0, 0, 0));
+		Thread mover = new Thread(() -> a.setPosition(new Vector3D(100, 0, 0)));
+		synchronized (world.entityTree()) {
+			mover.start();
+			mover.join(1000);
+			assertThat(mover.isAlive()).isFalse();
+		}
+		assertThat(world.getEntities(new Cuboid(99, -1, -1, 101, 1, 1))).containsOnly(a);
+	}
+
+	@Test
+	public void testConcurrentMoves() throws InterruptedException {
+		List<Entity> entities = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			entities.add(spawn(new Vector3D(i, 0, 0)));
+		}
+
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			int offset = t;
+			Thread thread = new Thread(() -> {
+				for (int step = 1; step <= 50; step++) {
+					for (int i = offset; i < entities.size(); i += 4) {
+						entities.get(i).setPosition(new Vector3D(i, step, 0));
+					}
+					world.entityTree().size();
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertThat(world.getEntities(new Cuboid(-1, -1, -1, 100, 49, 1))).isEmpty();
+		assertThat(world.getEntities(new Cuboid(-1, 49.5, -1, 100, 51, 1))).hasSize(100);
+	}
+
+	@Test
+	public void testRayTraceAndNearest() {
+		Entity a = spawn(new Vector3D(5, 0, 0));
+		Entity b = spawn(new Vector3D(8, 0, 0));
+		Entity c = spawn(new Vector3D(5, 3, 0));
+		a.add(new Collider());
+		b.add(new Collider());
+		c.add(new Collider());
+
+		assertThat(world.entityTree().rayTrace(new Ray(new Vector3D(0, 0.5, 0.5), new Vector3D(1, 0, 0)), 20)).containsOnly(a, b);
+		assertThat(world.entityTree().rayTrace(new Ray(new Vector3D(0, 0.5, 0.5), new Vector3D(1, 0, 0)), 6)).containsOnly(a);
+		assertThat(world.entityTree().nearest(new Vector3D(9, 0, 0), 2)).containsExactly(b, a);
+	}
+
+	private Entity spawn(Vector3D position) {
+		Entity entity = new Entity() {
+			@Override
+			public String getID() {
+				return "test";
+			}
+		};
+		entity.add(new EntityTransform());
+		entity.setPosition(position);
+		world.entityTree().add(entity);
+		return entity;
+	}
+}
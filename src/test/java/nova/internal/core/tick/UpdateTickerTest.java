@@ -0,0 +1,445 @@
+package nova.internal.core.tick;
+
+import nova.core.block.Block;
+import nova.core.component.ComponentProvider;
+import nova.core.component.Updater;
+import nova.core.component.transform.BlockTransform;
+import nova.core.event.Event;
+import nova.core.event.EventBus;
+import nova.core.util.SectionProfiler;
+import nova.core.util.SectionProfiler.Section;
+import nova.core.world.Region;
+import nova.core.world.World;
+import nova.testutils.FakeWorld;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static nova.testutils.NovaAssertions.assertThat;
+
+public class UpdateTickerTest {
+
+	UpdateTicker ticker;
+
+	@Before
+	public void setUp() {
+		ticker = new UpdateTicker();
+		ticker.setParallelThreshold(0);
+	}
+
+	@Test
+	public void testGroups() {
+		List<GroupedUpdater> all = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			GroupedUpdater updater = new GroupedUpdater(i % 4);
+			all.add(updater);
+			ticker.add(updater);
+		}
+
+		ticker.update();
+		ticker.update();
+
+		all.forEach(updater -> assertThat(updater.ticks).isEqualTo(2));
+		assertThat(ticker.getGroupTimes().keySet()).containsOnly(0, 1, 2, 3);
+	}
+
+	@Test
+	public void testGroupThreads() {
+		Set<Object> violations = ConcurrentHashMap.newKeySet();
+		for (int i = 0; i < 100; i++) {
+			int group = i % 2;
+			ticker.add(new Updater() {
+				@Override
+				public Object updateGroup() {
+					return group;
+				}
+
+				@Override
+				public void update(double deltaTime) {
+					if (!GroupThread.claim(group)) {
+						violations.add(group);
+					}
+				}
+			});
+		}
+
+		for (int i = 0; i < 10; i++) {
+			GroupThread.reset();
+			ticker.update();
+		}
+
+		assertThat(violations).isEmpty();
+	}
+
+	@Test
+	public void testModifyDuringTick() {
+		GroupedUpdater added = new GroupedUpdater(0);
+		ticker.add(new Updater() {
+			@Override
+			public void update(double deltaTime) {
+				ticker.add(added);
+				ticker.remove(this);
+			}
+		});
+
+		ticker.update();
+		assertThat(added.ticks).isEqualTo(0);
+		ticker.update();
+		assertThat(added.ticks).isEqualTo(1);
+		assertThat(ticker.getGroupTimes().keySet()).containsOnly(0);
+	}
+
+	@Test
+	public void testPreQueue() {
+		List<String> events = new ArrayList<>();
+		ticker.preQueue(() -> {
+			events.add("a");
+			ticker.preQueue(() -> events.add("c"));
+		});
+		ticker.preQueue(() -> events.add("b"));
+		assertThat(ticker.getPreQueueDepth()).isEqualTo(2);
+
+		ticker.update();
+		assertThat(events).containsExactly("a", "b");
+		assertThat(ticker.getPreQueueDepth()).isEqualTo(1);
+
+		ticker.update();
+		assertThat(events).containsExactly("a", "b", "c");
+		assertThat(ticker.getDrainTimes().count()).isEqualTo(2);
+	}
+
+	@Test
+	public void testPreQueueBudget() {
+		List<Integer> events = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			int event = i;
+			ticker.preQueue(() -> {
+				events.add(event);
+				LockSupport.parkNanos(2_000_000);
+			});
+		}
+		ticker.setPreQueueBudget(1_000_000);
+
+		ticker.update();
+		assertThat(events).containsExactly(0);
+		ticker.update();
+		ticker.update();
+		assertThat(events).containsExactly(0, 1, 2);
+	}
+
+	@Test
+	public void testConcurrentPreQueue() throws InterruptedException {
+		AtomicInteger count = new AtomicInteger();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Thread thread = new Thread(() -> {
+				for (int j = 0; j < 1000; j++) {
+					ticker.preQueue(count::incrementAndGet);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+
+		while (threads.stream().anyMatch(Thread::isAlive)) {
+			ticker.update();
+		}
+		ticker.update();
+
+		assertThat(count.get()).isEqualTo(4000);
+		assertThat(ticker.getPreQueueDepth()).isEqualTo(0);
+	}
+
+	@Test
+	public void testTickingThread() throws InterruptedException {
+		GroupedUpdater updater = new GroupedUpdater(0);
+		ticker.add(updater);
+		UpdateTicker.TickingThread thread = new UpdateTicker.TickingThread(ticker, 200);
+		assertThat(thread.tickNanos).isEqualTo(5_000_000L);
+
+		thread.start();
+		Thread.sleep(100);
+		thread.shutdown();
+		thread.join(1000);
+
+		assertThat(thread.isAlive()).isFalse();
+		assertThat(updater.ticks).isBetween(5, 40);
+		assertThat(thread.getTickTimes().count()).isEqualTo((long) updater.ticks);
+		assertThat(ticker.getDeltaTime()).isGreaterThan(0d);
+	}
+
+	@Test
+	public void testTickingThreadInterrupt() throws InterruptedException {
+		UpdateTicker.TickingThread thread = new UpdateTicker.TickingThread(ticker, 20);
+		thread.start();
+		thread.interrupt();
+		thread.join(1000);
+
+		assertThat(thread.isAlive()).isFalse();
+	}
+
+	@Test
+	public void testRegionGroups() {
+		FakeWorld world = new FakeWorld();
+		List<BlockUpdater> all = new ArrayList<>();
+		for (Vector3D position : new Vector3D[] { new Vector3D(0, 0, 0), new Vector3D(15, 15, 15), new Vector3D(16, 0, 0), new Vector3D(-1, 0, 0) }) {
+			BlockUpdater updater = new BlockUpdater(world, position);
+			all.add(updater);
+			ticker.add(updater);
+		}
+		ticker.add(new GroupedUpdater(0));
+		ticker.update();
+
+		assertThat(all.stream().allMatch(updater -> updater.ticks == 1)).isTrue();
+		assertThat(ticker.getGroupTimes().keySet()).containsOnly(new Region(world, 0, 0, 0), new Region(world, 1, 0, 0), new Region(world, -1, 0, 0), 0);
+	}
+
+	@Test
+	public void testRegroupOnMove() {
+		FakeWorld world = new FakeWorld();
+		BlockUpdater updater = new BlockUpdater(world, new Vector3D(0, 0, 0));
+		BlockTransform transform = updater.get(BlockTransform.class);
+		ticker.add(updater);
+		ticker.update();
+		assertThat(ticker.getGroupTimes().keySet()).containsOnly(new Region(world, 0, 0, 0));
+
+		transform.setPosition(new Vector3D(15, 3, 15));
+		ticker.update();
+		assertThat(ticker.getGroupTimes().keySet()).containsOnly(new Region(world, 0, 0, 0));
+
+		transform.setPosition(new Vector3D(16, 3, 15));
+		ticker.update();
+		assertThat(ticker.getGroupTimes().keySet()).containsOnly(new Region(world, 1, 0, 0));
+		assertThat(updater.ticks).isEqualTo(3);
+
+		ticker.remove(updater);
+		assertThat(transform.events.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void testRegroupOnAddedTransform() {
+		FakeWorld world = new FakeWorld();
+		int[] lookups = new int[1];
+		LateUpdater updater = new LateUpdater() {
+			@Override
+			public Object updateGroup() {
+				lookups[0]++;
+				return super.updateGroup();
+			}
+		};
+		GroupedUpdater other = new GroupedUpdater(0);
+		ticker.add(updater);
+		ticker.add(other);
+		ticker.update();
+		assertThat(ticker.getGroupTimes().keySet()).containsOnly(UpdateTicker.DEFAULT_GROUP, 0);
+
+		BlockTransform transform = new BlockTransform();
+		transform.setWorld(world);
+		transform.setPosition(new Vector3D(20, 0, 0));
+		updater.add(transform);
+		ticker.update();
+		assertThat(ticker.getGroupTimes().keySet()).containsOnly(new Region(world, 1, 0, 0), 0);
+
+		transform.setPosition(new Vector3D(20, 0, 0));
+		transform.setPosition(new Vector3D(40, 0, 0));
+		ticker.update();
+		assertThat(ticker.getGroupTimes().keySet()).containsOnly(new Region(world, 2, 0, 0), 0);
+		assertThat(lookups[0]).isEqualTo(3);
+
+		updater.remove(transform);
+		ticker.update();
+		assertThat(ticker.getGroupTimes().keySet()).containsOnly(UpdateTicker.DEFAULT_GROUP, 0);
+		assertThat(transform.events.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void testProfiledByClass() {
+		FakeWorld world = new FakeWorld();
+		ticker.add(new BlockUpdater(world, new Vector3D(0, 0, 0)));
+		ticker.add(new BlockUpdater(world, new Vector3D(100, 0, 0)));
+		SectionProfiler.reset();
+		SectionProfiler.setMode(SectionProfiler.Mode.FULL);
+		try {
+			ticker.update();
+			Section updaters = SectionProfiler.root().get("tick", "updaters");
+			assertThat(updaters.children()).hasSize(1);
+			assertThat(updaters.get(BlockUpdater.class.getName()).times().count()).isEqualTo(2L);
+		} finally {
+			SectionProfiler.setMode(SectionProfiler.Mode.OFF);
+			SectionProfiler.reset();
+		}
+	}
+
+	@Test
+	public void testPostQueue() {
+		List<String> events = Collections.synchronizedList(new ArrayList<>());
+		for (int i = 0; i < 4; i++) {
+			ticker.add(new GroupedUpdater(i) {
+				@Override
+				public void update(double deltaTime) {
+					events.add("update");
+					ticker.postQueue(() -> {
+						events.add("post");
+						ticker.postQueue(() -> events.add("next"));
+					});
+				}
+			});
+		}
+
+		ticker.update();
+		assertThat(events).containsExactly("update", "update", "update", "update", "post", "post", "post", "post");
+	}
+
+	@Test
+	public void testSleep() {
+		GroupedUpdater updater = new GroupedUpdater(0) {
+			@Override
+			public void update(double deltaTime) {
+				super.update(deltaTime);
+				ticker.sleep(this, 3);
+			}
+		};
+		ticker.add(updater);
+
+		for (int i = 0; i < 9; i++) {
+			ticker.update();
+		}
+		assertThat(updater.ticks).isEqualTo(3);
+		assertThat(ticker.isSleeping(updater)).isTrue();
+
+		ticker.wake(updater);
+		ticker.update();
+		assertThat(updater.ticks).isEqualTo(4);
+	}
+
+	@Test
+	public void testSleepOnlyRegroupsSleeper() {
+		int[] lookups = new int[2];
+		GroupedUpdater sleeper = new GroupedUpdater(0) {
+			@Override
+			public Object updateGroup() {
+				lookups[0]++;
+				return super.updateGroup();
+			}
+		};
+		GroupedUpdater other = new GroupedUpdater(0) {
+			@Override
+			public Object updateGroup() {
+				lookups[1]++;
+				return super.updateGroup();
+			}
+		};
+		ticker.add(sleeper);
+		ticker.add(other);
+		ticker.update();
+
+		ticker.sleep(sleeper, 2);
+		ticker.update();
+		assertThat(sleeper.ticks).isEqualTo(1);
+		assertThat(other.ticks).isEqualTo(2);
+		ticker.update();
+		ticker.update();
+		assertThat(sleeper.ticks).isEqualTo(2);
+		assertThat(other.ticks).isEqualTo(4);
+
+		assertThat(lookups[0]).isEqualTo(2);
+		assertThat(lookups[1]).isEqualTo(1);
+		assertThat(ticker.getGroupTimes().keySet()).containsExactly(0);
+	}
+
+	@Test
+	public void testSleepLongerThanWheel() {
+		GroupedUpdater updater = new GroupedUpdater(0);
+		ticker.add(updater);
+		ticker.sleep(updater, 300);
+
+		for (int i = 0; i < 300; i++) {
+			ticker.update();
+		}
+		assertThat(updater.ticks).isEqualTo(0);
+		ticker.update();
+		assertThat(updater.ticks).isEqualTo(1);
+		assertThat(ticker.getSleepingCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testWakeOn() {
+		EventBus<Event> events = new EventBus<>();
+		GroupedUpdater updater = new GroupedUpdater(0);
+		ticker.add(updater);
+		ticker.wakeOn(events, Block.NeighborChangeEvent.class, updater);
+		ticker.sleep(updater);
+
+		for (int i = 0; i < 5; i++) {
+			ticker.update();
+		}
+		assertThat(updater.ticks).isEqualTo(0);
+		assertThat(ticker.getActiveCount()).isEqualTo(0);
+
+		events.publish(new Block.NeighborChangeEvent(Optional.empty()));
+		ticker.update();
+		assertThat(updater.ticks).isEqualTo(1);
+		assertThat(ticker.isSleeping(updater)).isFalse();
+	}
+
+	static class BlockUpdater extends ComponentProvider implements Updater {
+		int ticks;
+
+		BlockUpdater(World world, Vector3D position) {
+			BlockTransform transform = add(new BlockTransform());
+			transform.setWorld(world);
+			transform.setPosition(position);
+		}
+
+		@Override
+		public void update(double deltaTime) {
+			ticks++;
+		}
+	}
+
+	static class LateUpdater extends ComponentProvider implements Updater {
+	}
+
+	static class GroupedUpdater implements Updater {
+		final int group;
+		int ticks;
+
+		GroupedUpdater(int group) {
+			this.group = group;
+		}
+
+		@Override
+		public Object updateGroup() {
+			return group;
+		}
+
+		@Override
+		public void update(double deltaTime) {
+			ticks++;
+		}
+	}
+
+	/**
+	 * Checks that each group is only updated by a single thread per tick.
+	 */
+	static class GroupThread {
+		static final ConcurrentHashMap<Object, Thread> threads = new ConcurrentHashMap<>();
+
+		static boolean claim(Object group) {
+			return threads.computeIfAbsent(group, key -> Thread.currentThread()) == Thread.currentThread();
+		}
+
+		static void reset() {
+			threads.clear();
+		}
+	}
+}
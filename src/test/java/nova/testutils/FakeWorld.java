@@ -9,6 +9,7 @@ import nova.core.entity.EntityFactory;
 import nova.core.item.Item;
 import nova.core.sound.Sound;
 import nova.core.util.shape.Cuboid;
+import nova.core.world.EntityQuery;
 import nova.core.world.World;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 
@@ -65,6 +66,8 @@ public class FakeWorld extends World {
 		component.setWorld(this);
 		make.add(component);
 		entities.add(make);
+		entityIndex().add(make);
+		entityTree().add(make);
 		return make;
 	}
 
@@ -75,6 +78,16 @@ public class FakeWorld extends World {
 			.findAny();
 	}
 
+	@Override
+	public Set<Entity> getEntities(Cuboid bound) {
+		return entityTree().getEntities(bound);
+	}
+
+	@Override
+	public EntityQuery query(Class<?>... componentTypes) {
+		return entityIndex().query(componentTypes);
+	}
+
 	@Override
 	public Entity addEntity(Vector3D position, Item item) {
 		//TODO: Implement
@@ -96,12 +109,8 @@ public class FakeWorld extends World {
 	@Override
 	public void removeEntity(Entity entity) {
 		entities.remove(entity);
-	}
-
-	@Override
-	public Set<Entity> getEntities(Cuboid bound) {
-		//TODO: Implement
-		return null;
+		entityIndex().remove(entity);
+		entityTree().remove(entity);
 	}
 
 	@Override